@@ -0,0 +1,84 @@
+package com.razatech.reporting;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Cost of building report payloads and serialising them, without any I/O
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadBenchmark {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private StepPayload stepPayload;
+    private TestPayload testPayload;
+
+    @Setup
+    public void setup() {
+        stepPayload = stepPayload();
+        testPayload = testPayload();
+    }
+
+    @Benchmark
+    public StepPayload buildStepPayload() {
+        return stepPayload();
+    }
+
+    @Benchmark
+    public TestPayload buildTestPayload() {
+        return testPayload();
+    }
+
+    @Benchmark
+    public long serializeStepPayload() throws Exception {
+        return new JsonEntity(PramanaReporter.STEP_WRITER, stepPayload).getContentLength();
+    }
+
+    @Benchmark
+    public long serializeTestPayload() throws Exception {
+        return new JsonEntity(PramanaReporter.TEST_WRITER, testPayload).getContentLength();
+    }
+
+    @Benchmark
+    public long buildAndSerializeStep() throws Exception {
+        return new JsonEntity(PramanaReporter.STEP_WRITER, stepPayload()).getContentLength();
+    }
+
+    // Baseline: the HashMap body and writeValueAsString the reporter used before typed payloads
+    @Benchmark
+    public String buildAndSerializeStepAsMap() throws Exception {
+        Map<String, Object> body = new HashMap<>();
+        body.put("testId", "test_42");
+        body.put("stepNumber", 7);
+        body.put("description", "Verify all visible rows have 'Delivered' status");
+        body.put("status", "passed");
+        body.put("duration", 123L);
+        return mapper.writeValueAsString(body);
+    }
+
+    private static StepPayload stepPayload() {
+        return new StepPayload("test_42", 7, "Verify all visible rows have 'Delivered' status", "passed", 123, null);
+    }
+
+    private static TestPayload testPayload() {
+        return new TestPayload("verifyStatusFilter", "Verify Status Filter", "failed", 5321,
+            "2024-01-01T00:00:00Z", "Status filter not working correctly! expected [Delivered] but found [Pending]",
+            "[com.razatech.tests.TablePageTest.verifyStatusFilter(TablePageTest.java:61)]");
+    }
+}
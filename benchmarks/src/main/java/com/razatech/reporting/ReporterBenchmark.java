@@ -0,0 +1,74 @@
+package com.razatech.reporting;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Full request path against an in-process stub server; ops/s is events/sec as seen by the test thread
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReporterBenchmark {
+
+    // Reporter modes are read once when PramanaReporter loads, so every mode runs in its own fork
+    @Param({"sync", "async", "batch", "async-batch"})
+    public String mode;
+
+    private StubPramanaServer server;
+    private PrintStream originalOut;
+    private String testId;
+    private final AtomicInteger stepNumber = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        System.setProperty("reporter.async.enabled", String.valueOf(mode.startsWith("async")));
+        System.setProperty("reporter.batch.enabled", String.valueOf(mode.endsWith("batch")));
+        System.setProperty("reporter.lazy.registration", "false");
+        System.setProperty("reporter.spool.enabled", "false");
+
+        server = new StubPramanaServer(true).setRecording(false).start();
+        PramanaReporter.configure(server.getBaseUrl(), "suite_bench");
+        testId = PramanaReporter.startTest("benchmark", "benchmark");
+
+        // The reporter logs every call; keep that off the JMH console
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Iteration)
+    public void drain() {
+        // Queued and batched events are sent before the next iteration starts, so backlogs do not carry over
+        PramanaReporter.flush();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        PramanaReporter.shutdown();
+        System.setOut(originalOut);
+        server.stop();
+    }
+
+    @Benchmark
+    public String logStep() {
+        return PramanaReporter.logTestStep(testId, stepNumber.incrementAndGet(),
+            "Verify all visible rows have 'Delivered' status", "passed", 123, null);
+    }
+}
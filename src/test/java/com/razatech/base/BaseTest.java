@@ -1,30 +1,239 @@
 package com.razatech.base;
 
+import com.razatech.pages.BasePage;
+import com.razatech.pages.LoginPage;
+import com.razatech.reporting.PramanaConfig;
 import com.razatech.reporting.PramanaReporter;
+import com.razatech.support.CommandTracer;
+import com.razatech.support.NetworkControl;
+import com.razatech.support.Waits;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 public class BaseTest {
-    protected WebDriver driver;
+    // One driver per thread so test methods can run with parallel="methods"
+    private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    private static final boolean POOL_ENABLED = PramanaConfig.getBoolean("driver.pool.enabled", false);
+    private static volatile DriverPool pool;
+    // Each browser session downloads into its own directory so parallel tests never see each other's files
+    private static final Map<WebDriver, Path> downloadDirs = new ConcurrentHashMap<>();
+    private static final Map<WebDriver, NetworkControl> networkControls = new ConcurrentHashMap<>();
+    private static final boolean NETWORK_TIMINGS = PramanaConfig.getBoolean("network.timings.enabled", false);
+    // failed (default) or always
+    private static final boolean NETWORK_ATTACH_ALWAYS =
+        "always".equalsIgnoreCase(PramanaConfig.get("network.timings.attach", "failed"));
+    private static final CommandTracer tracer = PramanaConfig.getBoolean("driver.trace.enabled", false)
+        ? new CommandTracer(BasePage.class, PramanaConfig.get("driver.trace.commands",
+            "get,findElement,findElements,click,sendKeys,getText,executeScript").split("\\s*,\\s*"))
+        : null;
+    private static final boolean SESSION_SNAPSHOTS = PramanaConfig.getBoolean("session.snapshot.enabled", true);
+    private static final SessionCache sessions = new SessionCache(
+        TimeUnit.MINUTES.toMillis(PramanaConfig.getLong("session.ttl.minutes", 30)),
+        BaseTest::logInThroughUi,
+        webDriver -> !new LoginPage(webDriver).isLoginFormVisible());
+    // chrome or firefox; the shard runner sets this per worker
+    private static final String BROWSER = PramanaConfig.get("browser", "chrome").toLowerCase();
+
+    public WebDriver getDriver() {
+        return driver.get();
+    }
+
+    protected Waits waits() {
+        return new Waits(getDriver());
+    }
+
+    public Path getDownloadDir() {
+        return downloadDirs.get(getDriver());
+    }
+
+    // Null when driver.trace.enabled=false
+    public static CommandTracer getCommandTracer() {
+        return tracer;
+    }
+
+    // Load and request timings of the current page plus blocked/cached counts, or null when disabled or when the
+    // test passed and network.timings.attach is not "always"
+    public String networkReport(boolean failed) {
+        WebDriver webDriver = getDriver();
+        if (!NETWORK_TIMINGS || webDriver == null) {
+            return null;
+        }
+        // Taken every test so the counts of the next report start from zero
+        NetworkControl control = networkControls.get(webDriver);
+        String counts = control != null ? control.takeCounts() : null;
+        if (!failed && !NETWORK_ATTACH_ALWAYS) {
+            return null;
+        }
+        String report = NetworkControl.timingReport(webDriver);
+        if (report != null && counts != null) {
+            report = "Intercepted requests: " + counts + "\n" + report;
+        }
+        return report;
+    }
+
+    protected WebDriver createDriver() {
+        Path downloadDir;
+        try {
+            downloadDir = Files.createTempDirectory("pramana-downloads-");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create download directory", e);
+        }
+
+        WebDriver webDriver = "firefox".equals(BROWSER) ? createFirefox(downloadDir) : createChrome(downloadDir);
+        // DevTools needs the undecorated driver
+        NetworkControl control = NetworkControl.attach(webDriver);
+        if (tracer != null) {
+            webDriver = tracer.decorate(webDriver);
+        }
+        downloadDirs.put(webDriver, downloadDir);
+        if (control != null) {
+            networkControls.put(webDriver, control);
+        }
+        // Pages wait explicitly for what they need, so no implicit wait by default
+        webDriver.manage().timeouts().implicitlyWait(Duration.ofMillis(PramanaConfig.getLong("driver.implicit.wait.ms", 0)));
+        webDriver.manage().window().maximize();
+        return webDriver;
+    }
+
+    private static WebDriver createChrome(Path downloadDir) {
+        Map<String, Object> prefs = new HashMap<>();
+        prefs.put("download.default_directory", downloadDir.toAbsolutePath().toString());
+        prefs.put("download.prompt_for_download", false);
 
-    @BeforeMethod
-    public void setup() {
         ChromeOptions options = new ChromeOptions();
         options.addArguments("--headless");
-        driver = new ChromeDriver(options);
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-        driver.manage().window().maximize();
+        options.setExperimentalOption("prefs", prefs);
+        return new ChromeDriver(options);
+    }
+
+    private static WebDriver createFirefox(Path downloadDir) {
+        FirefoxOptions options = new FirefoxOptions();
+        options.addArguments("-headless");
+        // 2 = use browser.download.dir instead of the default Downloads folder
+        options.addPreference("browser.download.folderList", 2);
+        options.addPreference("browser.download.dir", downloadDir.toAbsolutePath().toString());
+        options.addPreference("browser.download.useDownloadDir", true);
+        options.addPreference("browser.helperApps.neverAsk.saveToDisk", "text/csv,application/csv,application/octet-stream");
+        return new FirefoxDriver(options);
+    }
+
+    private DriverPool pool(ITestContext context) {
+        synchronized (BaseTest.class) {
+            if (pool != null) {
+                return pool;
+            }
+            // Default to one session per TestNG thread
+            int threadCount = context.getSuite().getXmlSuite().getThreadCount();
+            pool = new DriverPool(
+                PramanaConfig.getInt("driver.pool.size", threadCount),
+                PramanaConfig.getInt("driver.pool.max.uses", 20),
+                PramanaConfig.getLong("driver.pool.checkout.timeout.seconds", 300),
+                this::createDriver,
+                BaseTest::quitDriver
+            );
+            System.out.println("ℹ️ Browser session pool enabled with " + pool.getSize() + " sessions");
+            return pool;
+        }
+    }
+
+    @BeforeMethod
+    public void setup(ITestContext context, Method method) {
+        driver.set(POOL_ENABLED ? pool(context).checkout() : createDriver());
+
+        LoggedInAs loggedIn = method.isAnnotationPresent(LoggedInAs.class)
+            ? method.getAnnotation(LoggedInAs.class)
+            : method.getDeclaringClass().getAnnotation(LoggedInAs.class);
+        if (loggedIn != null) {
+            logInAs(loggedIn.value());
+        }
+    }
+
+    // Restores a captured session for the role, or logs in through the UI when there is none yet
+    protected void logInAs(String role) {
+        if (SESSION_SNAPSHOTS) {
+            sessions.logIn(getDriver(), role);
+        } else {
+            logInThroughUi(getDriver(), role);
+        }
+    }
+
+    private static void logInThroughUi(WebDriver webDriver, String role) {
+        webDriver.get(PramanaConfig.get("login.url", "https://panjatan.netlify.app/"));
+        LoginPage loginPage = new LoginPage(webDriver);
+        loginPage.waitUntilReady();
+        loginPage.login(PramanaConfig.get("login." + role + ".username", role),
+            PramanaConfig.get("login." + role + ".password", ""));
+        if (!loginPage.waitUntilLoggedIn(Duration.ofMillis(PramanaConfig.getLong("wait.timeout.ms", 10000)))) {
+            throw new IllegalStateException("Login as " + role + " did not succeed");
+        }
     }
 
     @AfterMethod
-    public void tearDown() {
-        if (driver != null) {
-            driver.quit();
+    public void tearDown(ITestResult result) {
+        WebDriver webDriver = driver.get();
+        if (webDriver == null) {
+            return;
+        }
+        if (POOL_ENABLED) {
+            // A session that just failed a test may be in a bad state, so it is not reused
+            pool.release(webDriver, result.isSuccess());
+        } else {
+            quitDriver(webDriver);
+        }
+        driver.remove();
+    }
+
+    private static void quitDriver(WebDriver webDriver) {
+        try {
+            NetworkControl control = networkControls.remove(webDriver);
+            if (control != null) {
+                control.close();
+            }
+            webDriver.quit();
+        } finally {
+            deleteDownloadDir(downloadDirs.remove(webDriver));
+        }
+    }
+
+    private static void deleteDownloadDir(Path downloadDir) {
+        if (downloadDir == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(downloadDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not delete download directory " + downloadDir + ": " + e.getMessage());
+        }
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void shutdownPool() {
+        synchronized (BaseTest.class) {
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
+            }
         }
     }
 }
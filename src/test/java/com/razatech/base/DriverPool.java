@@ -0,0 +1,200 @@
+package com.razatech.base;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Fixed-size pool of browser sessions that are reset and reused across test methods
+public class DriverPool {
+
+    private final int size;
+    private final int maxUses;
+    private final long checkoutTimeoutSeconds;
+    private final Supplier<WebDriver> factory;
+    private final Consumer<WebDriver> quitter;
+    private final Queue<WebDriver> idle = new ConcurrentLinkedQueue<>();
+    private final Map<WebDriver, Integer> uses = new ConcurrentHashMap<>();
+    // One permit per session that may be checked out; a released or discarded session frees its permit,
+    // so a waiting thread either takes the idle session or starts a replacement
+    private final Semaphore slots;
+
+    public DriverPool(int size, int maxUses, long checkoutTimeoutSeconds,
+                      Supplier<WebDriver> factory, Consumer<WebDriver> quitter) {
+        this.size = Math.max(1, size);
+        this.maxUses = maxUses;
+        this.checkoutTimeoutSeconds = checkoutTimeoutSeconds;
+        this.factory = factory;
+        this.quitter = quitter;
+        this.slots = new Semaphore(this.size, true);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public WebDriver checkout() {
+        boolean acquired = false;
+        try {
+            acquired = slots.tryAcquire(checkoutTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!acquired) {
+            throw new IllegalStateException("No browser session became available within " + checkoutTimeoutSeconds + "s");
+        }
+
+        WebDriver driver = idle.poll();
+        if (driver != null) {
+            return driver;
+        }
+        // Holding a permit with nothing idle means fewer than size sessions are open
+        try {
+            driver = factory.get();
+            uses.put(driver, 0);
+            return driver;
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    // Healthy sessions are reset and returned; failed or worn-out ones are quit and replaced on demand
+    public void release(WebDriver driver, boolean healthy) {
+        if (driver == null) {
+            return;
+        }
+        int used = uses.merge(driver, 1, Integer::sum);
+        try {
+            if (healthy && (maxUses <= 0 || used < maxUses) && reset(driver)) {
+                idle.offer(driver);
+            } else {
+                discard(driver);
+            }
+        } finally {
+            slots.release();
+        }
+    }
+
+    // Only the origins of this lease are cleared, so a reset costs the same however long the session lives
+    private boolean reset(WebDriver driver) {
+        try {
+            HasCdp cdp = driver instanceof HasCdp ? (HasCdp) driver : null;
+            Set<String> origins = new LinkedHashSet<>();
+            List<String> handles = new ArrayList<>(driver.getWindowHandles());
+            String current = null;
+            for (String handle : handles) {
+                driver.switchTo().window(handle);
+                current = noteOrigin(driver.getCurrentUrl(), origins);
+                if (cdp != null) {
+                    // Chromium also tells us every page this window went through during the lease
+                    for (String url : history(cdp)) {
+                        noteOrigin(url, origins);
+                    }
+                }
+            }
+            if (cdp == null && current != null) {
+                clearStorage(driver);
+                origins.remove(current);
+            }
+
+            // A new tab starts with no session storage and no history; the old windows take theirs with them
+            driver.switchTo().newWindow(WindowType.TAB);
+            String fresh = driver.getWindowHandle();
+            for (String handle : handles) {
+                driver.switchTo().window(handle);
+                driver.close();
+            }
+            driver.switchTo().window(fresh);
+
+            if (cdp != null) {
+                cdp.executeCdpCommand("Network.clearBrowserCookies", Collections.emptyMap());
+                for (String origin : origins) {
+                    cdp.executeCdpCommand("Storage.clearDataForOrigin",
+                        Map.of("origin", origin, "storageTypes", "local_storage,indexeddb,cache_storage,service_workers"));
+                }
+            } else if (!origins.isEmpty()) {
+                // Cookies and web storage are only reachable for the origin of the loaded page
+                for (String origin : origins) {
+                    // A static file, so no page script runs and writes storage again
+                    driver.get(origin + "/favicon.ico");
+                    clearStorage(driver);
+                }
+                driver.get("about:blank");
+            }
+            return true;
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ Could not reset browser session, recycling it: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static List<String> history(HasCdp cdp) {
+        List<String> urls = new ArrayList<>();
+        Object entries = cdp.executeCdpCommand("Page.getNavigationHistory", Collections.emptyMap()).get("entries");
+        if (entries instanceof List) {
+            for (Object entry : (List<?>) entries) {
+                if (entry instanceof Map) {
+                    urls.add(String.valueOf(((Map<?, ?>) entry).get("url")));
+                }
+            }
+        }
+        return urls;
+    }
+
+    private static void clearStorage(WebDriver driver) {
+        driver.manage().deleteAllCookies();
+        ((JavascriptExecutor) driver).executeScript(
+            "try { window.localStorage.clear(); } catch (e) {}"
+                + "try { window.sessionStorage.clear(); } catch (e) {}");
+    }
+
+    private static String noteOrigin(String url, Set<String> origins) {
+        if (url == null) {
+            return null;
+        }
+        try {
+            URI uri = URI.create(url);
+            String scheme = uri.getScheme();
+            if (uri.getHost() == null || !("http".equals(scheme) || "https".equals(scheme))) {
+                return null;
+            }
+            String origin = scheme + "://" + uri.getHost() + (uri.getPort() != -1 ? ":" + uri.getPort() : "");
+            origins.add(origin);
+            return origin;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void discard(WebDriver driver) {
+        uses.remove(driver);
+        try {
+            quitter.accept(driver);
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ Failed to quit browser session: " + e.getMessage());
+        }
+    }
+
+    public void shutdown() {
+        WebDriver driver;
+        while ((driver = idle.poll()) != null) {
+            discard(driver);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.razatech.base;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class DriverPoolTest {
+
+    private static final String LOGIN = "https://login.example.com";
+    private static final String APP = "https://app.example.com";
+    private static final String HELP = "https://help.example.com";
+
+    @Test(description = "A thread waiting for a session starts a new one as soon as a failed session is discarded")
+    public void waiterGetsReplacementForDiscardedSession() throws Exception {
+        List<WebDriver> quit = Collections.synchronizedList(new ArrayList<>());
+        DriverPool pool = new DriverPool(1, 0, 10, () -> new FakeBrowser(false).driver, quit::add);
+        WebDriver first = pool.checkout();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<WebDriver> waiter = executor.submit(pool::checkout);
+            Thread.sleep(200);
+            Assert.assertFalse(waiter.isDone(), "Pool handed out more sessions than its size");
+
+            pool.release(first, false);
+            WebDriver replacement = waiter.get(2, TimeUnit.SECONDS);
+            Assert.assertNotSame(replacement, first);
+            Assert.assertEquals(quit, Collections.singletonList(first));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(description = "With CDP a reset clears every origin of the lease without loading a page")
+    public void cdpResetClearsLeaseOriginsWithoutPageLoads() {
+        FakeBrowser browser = new FakeBrowser(true);
+        DriverPool pool = new DriverPool(1, 0, 10, () -> browser.driver, driver -> { });
+
+        WebDriver driver = pool.checkout();
+        browser.visit(LOGIN + "/");
+        pool.release(driver, true);
+
+        // The next test logs in on one origin, ends on another and leaves a popup open
+        driver = pool.checkout();
+        browser.visit(LOGIN + "/");
+        browser.visit(APP + "/dashboard");
+        browser.openPopup(HELP + "/faq");
+        int loads = browser.loads;
+        browser.clearedOrigins.clear();
+        pool.release(driver, true);
+
+        Assert.assertEquals(browser.loads, loads, "A CDP reset should not load any page");
+        Assert.assertEqualsNoOrder(browser.clearedOrigins.toArray(), new Object[]{LOGIN, APP, HELP});
+        browser.assertEmpty();
+
+        // A lease that visits nothing clears nothing, however many origins earlier leases saw
+        Assert.assertSame(pool.checkout(), driver);
+        browser.clearedOrigins.clear();
+        pool.release(driver, true);
+        Assert.assertEquals(browser.clearedOrigins, Collections.emptyList());
+        Assert.assertEquals(browser.loads, loads);
+    }
+
+    @Test(description = "Without CDP only the other origins open in this lease cost a page load")
+    public void resetWithoutCdpLoadsOnlyThisLeasesOtherOrigins() {
+        FakeBrowser browser = new FakeBrowser(false);
+        DriverPool pool = new DriverPool(1, 0, 10, () -> browser.driver, driver -> { });
+
+        WebDriver driver = pool.checkout();
+        browser.visit(LOGIN + "/");
+        browser.openPopup(APP + "/dashboard");
+        int loads = browser.loads;
+        pool.release(driver, true);
+
+        // The popup is cleared in place, the login page needs one load plus the final about:blank
+        Assert.assertEquals(browser.loads, loads + 2);
+        browser.assertEmpty();
+
+        driver = pool.checkout();
+        loads = browser.loads;
+        pool.release(driver, true);
+        Assert.assertEquals(browser.loads, loads, "Origins of earlier leases must not be visited again");
+    }
+
+    // A browser profile with shared cookies and localStorage per origin, and session storage per window
+    private static class FakeBrowser {
+        final Map<String, List<String>> cookies = new HashMap<>();
+        final Map<String, List<String>> localStorage = new HashMap<>();
+        final Map<String, Window> windows = new LinkedHashMap<>();
+        final List<String> clearedOrigins = new ArrayList<>();
+        final WebDriver driver;
+        int loads;
+        int nextHandle;
+        String current;
+
+        static class Window {
+            final List<String> history = new ArrayList<>();
+            final Map<String, List<String>> sessionStorage = new HashMap<>();
+            String url = "about:blank";
+        }
+
+        FakeBrowser(boolean cdp) {
+            current = newWindow();
+            Object options = Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{WebDriver.Options.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("deleteAllCookies")) {
+                        cookies.computeIfAbsent(origin(window().url), o -> new ArrayList<>()).clear();
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+            Object[] self = new Object[1];
+            Object targetLocator = Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.TargetLocator.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "window":
+                            Assert.assertTrue(windows.containsKey((String) args[0]), "no window " + args[0]);
+                            current = (String) args[0];
+                            return self[0];
+                        case "newWindow":
+                            current = newWindow();
+                            return self[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+            List<Class<?>> interfaces = new ArrayList<>(Arrays.asList(WebDriver.class, JavascriptExecutor.class));
+            if (cdp) {
+                interfaces.add(HasCdp.class);
+            }
+            driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                interfaces.toArray(new Class<?>[0]), (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "manage":
+                            return options;
+                        case "switchTo":
+                            return targetLocator;
+                        case "getWindowHandles":
+                            return new LinkedHashSet<>(windows.keySet());
+                        case "getWindowHandle":
+                            return current;
+                        case "close":
+                            windows.remove(current);
+                            return null;
+                        case "get":
+                            loads++;
+                            window().url = (String) args[0];
+                            window().history.add((String) args[0]);
+                            return null;
+                        case "getCurrentUrl":
+                            return window().url;
+                        case "executeScript":
+                            localStorage.computeIfAbsent(origin(window().url), o -> new ArrayList<>()).clear();
+                            window().sessionStorage.computeIfAbsent(origin(window().url), o -> new ArrayList<>()).clear();
+                            return null;
+                        case "executeCdpCommand":
+                            return cdp((String) args[0], (Map<?, ?>) args[1]);
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "FakeBrowser@" + System.identityHashCode(proxy);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+            self[0] = driver;
+        }
+
+        private Map<String, Object> cdp(String command, Map<?, ?> params) {
+            switch (command) {
+                case "Page.getNavigationHistory":
+                    List<Map<String, Object>> entries = new ArrayList<>();
+                    for (String url : window().history) {
+                        entries.add(Collections.singletonMap("url", url));
+                    }
+                    return Collections.singletonMap("entries", entries);
+                case "Network.clearBrowserCookies":
+                    cookies.values().forEach(List::clear);
+                    return Collections.emptyMap();
+                case "Storage.clearDataForOrigin":
+                    clearedOrigins.add((String) params.get("origin"));
+                    localStorage.computeIfAbsent((String) params.get("origin"), o -> new ArrayList<>()).clear();
+                    return Collections.emptyMap();
+                default:
+                    throw new UnsupportedOperationException(command);
+            }
+        }
+
+        private String newWindow() {
+            String handle = "window-" + nextHandle++;
+            windows.put(handle, new Window());
+            return handle;
+        }
+
+        Window window() {
+            return windows.get(current);
+        }
+
+        // Loads a page in the current window that sets a cookie and both kinds of storage for its origin
+        void visit(String page) {
+            driver.get(page);
+            cookies.computeIfAbsent(origin(page), o -> new ArrayList<>()).add("session");
+            localStorage.computeIfAbsent(origin(page), o -> new ArrayList<>()).add("token");
+            window().sessionStorage.computeIfAbsent(origin(page), o -> new ArrayList<>()).add("state");
+        }
+
+        void openPopup(String page) {
+            current = newWindow();
+            visit(page);
+        }
+
+        void assertEmpty() {
+            Assert.assertEquals(windows.size(), 1, "Only the fresh tab should be left");
+            Assert.assertEquals(window().url, "about:blank");
+            for (List<String> values : cookies.values()) {
+                Assert.assertEquals(values, Collections.emptyList(), "cookies " + cookies);
+            }
+            for (List<String> values : localStorage.values()) {
+                Assert.assertEquals(values, Collections.emptyList(), "localStorage " + localStorage);
+            }
+            for (List<String> values : window().sessionStorage.values()) {
+                Assert.assertEquals(values, Collections.emptyList(), "sessionStorage");
+            }
+        }
+
+        static String origin(String url) {
+            URI uri = URI.create(url);
+            return uri.getHost() != null ? uri.getScheme() + "://" + uri.getHost() : url;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.razatech.base;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// The test starts with a browser already logged in as this role (credentials from login.<role>.* in config)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface LoggedInAs {
+    String value();
+}
@@ -0,0 +1,65 @@
+package com.razatech.base;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Logs in through the UI once per role and JVM, then restores the captured session into other browsers
+public class SessionCache {
+
+    public interface Login {
+        void logIn(WebDriver driver, String role);
+    }
+
+    public interface Check {
+        boolean isLoggedIn(WebDriver driver);
+    }
+
+    private final long ttlMillis;
+    private final Login login;
+    private final Check check;
+    private final Map<String, SessionSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    public SessionCache(long ttlMillis, Login login, Check check) {
+        this.ttlMillis = ttlMillis;
+        this.login = login;
+        this.check = check;
+    }
+
+    public void logIn(WebDriver driver, String role) {
+        SessionSnapshot snapshot = snapshots.get(role);
+        if (restored(driver, role, snapshot)) {
+            return;
+        }
+
+        // One thread logs in for the role; the others wait and then restore its snapshot
+        synchronized (locks.computeIfAbsent(role, key -> new Object())) {
+            SessionSnapshot latest = snapshots.get(role);
+            if (latest != snapshot && restored(driver, role, latest)) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            login.logIn(driver, role);
+            snapshots.put(role, SessionSnapshot.capture(driver));
+            System.out.println("ℹ️ Logged in as " + role + " through the UI in " + (System.currentTimeMillis() - start)
+                + " ms; later tests reuse the session");
+        }
+    }
+
+    private boolean restored(WebDriver driver, String role, SessionSnapshot snapshot) {
+        if (snapshot == null || snapshot.isExpired(ttlMillis)) {
+            return false;
+        }
+        snapshot.restore(driver);
+        if (check.isLoggedIn(driver)) {
+            return true;
+        }
+        System.out.println("ℹ️ Session snapshot for " + role + " is no longer accepted, logging in again");
+        snapshots.remove(role, snapshot);
+        // The rejected cookies must not leak into the fresh UI login
+        driver.manage().deleteAllCookies();
+        return false;
+    }
+}
@@ -0,0 +1,151 @@
+package com.razatech.base;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SessionCacheTest {
+
+    @Test(description = "The first browser logs in, later ones get its cookies and storage instead")
+    public void restoresCapturedSession() {
+        AtomicInteger logins = new AtomicInteger();
+        SessionCache cache = new SessionCache(60000, (driver, role) -> {
+            logins.incrementAndGet();
+            FakeBrowser.of(driver).logIn();
+        }, driver -> FakeBrowser.of(driver).isLoggedIn());
+
+        FakeBrowser first = new FakeBrowser();
+        cache.logIn(first.driver, "admin");
+        FakeBrowser second = new FakeBrowser();
+        cache.logIn(second.driver, "admin");
+
+        Assert.assertEquals(logins.get(), 1);
+        Assert.assertTrue(second.isLoggedIn());
+        Assert.assertEquals(second.localStorage.get("token"), "abc");
+        Assert.assertEquals(second.visited, Arrays.asList("https://app.example.com/", "https://app.example.com/dashboard"));
+    }
+
+    @Test(description = "A snapshot the server no longer accepts, or one past its TTL, is replaced by a new login")
+    public void logsInAgainWhenSnapshotIsStale() {
+        AtomicInteger logins = new AtomicInteger();
+        Set<String> revoked = new HashSet<>();
+        SessionCache cache = new SessionCache(60000, (driver, role) -> {
+            logins.incrementAndGet();
+            FakeBrowser.of(driver).logIn();
+        }, driver -> FakeBrowser.of(driver).isLoggedIn() && !revoked.contains(FakeBrowser.of(driver).cookie()));
+
+        FakeBrowser first = new FakeBrowser();
+        cache.logIn(first.driver, "admin");
+        revoked.add(first.cookie());
+        FakeBrowser browser = new FakeBrowser();
+        cache.logIn(browser.driver, "admin");
+        Assert.assertEquals(logins.get(), 2);
+        Assert.assertNotEquals(browser.cookie(), first.cookie());
+        Assert.assertTrue(browser.isLoggedIn());
+
+        SessionCache expiring = new SessionCache(-1, (driver, role) -> {
+            logins.incrementAndGet();
+            FakeBrowser.of(driver).logIn();
+        }, driver -> true);
+        expiring.logIn(new FakeBrowser().driver, "admin");
+        expiring.logIn(new FakeBrowser().driver, "admin");
+        Assert.assertEquals(logins.get(), 4);
+    }
+
+    // A browser on app.example.com where logging in sets a session cookie and a token in localStorage
+    private static class FakeBrowser {
+        private static final Map<WebDriver, FakeBrowser> browsers = new HashMap<>();
+        private static int sessions;
+
+        final Set<Cookie> cookies = new HashSet<>();
+        final Map<String, Object> localStorage = new HashMap<>();
+        final Map<String, Object> sessionStorage = new HashMap<>();
+        final List<String> visited = new ArrayList<>();
+        final WebDriver driver;
+        String url = "about:blank";
+
+        FakeBrowser() {
+            Object options = Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{WebDriver.Options.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getCookies":
+                            return new HashSet<>(cookies);
+                        case "addCookie":
+                            cookies.removeIf(c -> c.getName().equals(((Cookie) args[0]).getName()));
+                            return cookies.add((Cookie) args[0]);
+                        case "deleteAllCookies":
+                            cookies.clear();
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+            driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "manage":
+                            return options;
+                        case "get":
+                            url = (String) args[0];
+                            visited.add(url);
+                            return null;
+                        case "getCurrentUrl":
+                            return url;
+                        case "executeScript":
+                            Object[] scriptArgs = (Object[]) args[1];
+                            if (scriptArgs.length == 0) {
+                                return Arrays.asList(new HashMap<>(localStorage), new HashMap<>(sessionStorage));
+                            }
+                            localStorage.clear();
+                            localStorage.putAll(cast(scriptArgs[0]));
+                            sessionStorage.clear();
+                            sessionStorage.putAll(cast(scriptArgs[1]));
+                            return null;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+            browsers.put(driver, this);
+        }
+
+        static FakeBrowser of(WebDriver driver) {
+            return browsers.get(driver);
+        }
+
+        void logIn() {
+            url = "https://app.example.com/dashboard";
+            cookies.removeIf(c -> c.getName().equals("session"));
+            cookies.add(new Cookie("session", "session-" + (++sessions)));
+            localStorage.put("token", "abc");
+        }
+
+        boolean isLoggedIn() {
+            return cookie() != null && "abc".equals(localStorage.get("token"));
+        }
+
+        String cookie() {
+            return cookies.stream().filter(c -> c.getName().equals("session")).map(Cookie::getValue).findFirst().orElse(null);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<String, Object> cast(Object map) {
+            return (Map<String, Object>) map;
+        }
+    }
+}
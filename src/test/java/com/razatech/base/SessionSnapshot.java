@@ -0,0 +1,89 @@
+package com.razatech.base;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Cookies plus local and session storage of a logged-in page, replayable into another browser session
+public class SessionSnapshot {
+
+    private static final String READ_STORAGE_SCRIPT =
+        "var read = function (storage) {"
+            + "  var items = {};"
+            + "  for (var i = 0; i < storage.length; i++) { var key = storage.key(i); items[key] = storage.getItem(key); }"
+            + "  return items;"
+            + "};"
+            + "return [read(window.localStorage), read(window.sessionStorage)];";
+
+    private static final String WRITE_STORAGE_SCRIPT =
+        "var write = function (storage, items) {"
+            + "  storage.clear();"
+            + "  for (var key in items) storage.setItem(key, items[key]);"
+            + "};"
+            + "write(window.localStorage, arguments[0]);"
+            + "write(window.sessionStorage, arguments[1]);";
+
+    private final String url;
+    private final Set<Cookie> cookies;
+    private final Map<String, Object> localStorage;
+    private final Map<String, Object> sessionStorage;
+    private final long capturedAt;
+
+    private SessionSnapshot(String url, Set<Cookie> cookies, Map<String, Object> localStorage,
+                            Map<String, Object> sessionStorage) {
+        this.url = url;
+        this.cookies = cookies;
+        this.localStorage = localStorage;
+        this.sessionStorage = sessionStorage;
+        this.capturedAt = System.currentTimeMillis();
+    }
+
+    @SuppressWarnings("unchecked")
+    public static SessionSnapshot capture(WebDriver driver) {
+        List<Object> storage = (List<Object>) ((JavascriptExecutor) driver).executeScript(READ_STORAGE_SCRIPT);
+        return new SessionSnapshot(driver.getCurrentUrl(), new HashSet<>(driver.manage().getCookies()),
+            new HashMap<>((Map<String, Object>) storage.get(0)), new HashMap<>((Map<String, Object>) storage.get(1)));
+    }
+
+    // Cookies and storage can only be set for the page's own origin, so that is opened first
+    public void restore(WebDriver driver) {
+        driver.get(origin(url));
+        driver.manage().deleteAllCookies();
+        for (Cookie cookie : cookies) {
+            driver.manage().addCookie(cookie);
+        }
+        ((JavascriptExecutor) driver).executeScript(WRITE_STORAGE_SCRIPT, localStorage, sessionStorage);
+        driver.get(url);
+    }
+
+    // Past its TTL, or a captured cookie has expired since
+    public boolean isExpired(long ttlMillis) {
+        long now = System.currentTimeMillis();
+        if (now - capturedAt > ttlMillis) {
+            return true;
+        }
+        Date soonest = cookies.stream()
+            .map(Cookie::getExpiry)
+            .filter(expiry -> expiry != null)
+            .min(Date::compareTo)
+            .orElse(null);
+        return soonest != null && soonest.getTime() <= now;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    private static String origin(String url) {
+        URI uri = URI.create(url);
+        return uri.getScheme() + "://" + uri.getAuthority() + "/";
+    }
+}
@@ -0,0 +1,100 @@
+package com.razatech.grid;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Expected duration per test class or test case, learned from earlier runs and kept in a properties file.
+// The server also keeps per-test-case history (/tests/case/{testCaseId}/runs, plus GET /tests/{id} for each run's
+// duration), but that is a request per test case and per run before anything can start
+public class DurationHistory {
+
+    // Weight of the newest run; older runs fade out instead of being forgotten at once
+    private static final double SMOOTHING = 0.3;
+
+    private final Path file;
+    private final long defaultMillis;
+    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+    private final Set<String> updated = ConcurrentHashMap.newKeySet();
+
+    public DurationHistory(Path file, long defaultMillis) {
+        this.file = file;
+        this.defaultMillis = defaultMillis;
+        load();
+    }
+
+    public boolean isKnown(String key) {
+        return durations.containsKey(key);
+    }
+
+    // Unknown keys get the average of the known ones, or the default on a cold start
+    public long estimate(String key) {
+        Long known = durations.get(key);
+        if (known != null) {
+            return known;
+        }
+        return Math.round(durations.values().stream().mapToLong(Long::longValue).average().orElse(defaultMillis));
+    }
+
+    public void record(String key, long millis) {
+        durations.merge(key, Math.max(0, millis),
+            (previous, latest) -> Math.round(previous * (1 - SMOOTHING) + latest * SMOOTHING));
+        updated.add(key);
+    }
+
+    public int size() {
+        return durations.size();
+    }
+
+    // Written to a temp file and moved into place so a crash never leaves a half-written history.
+    // Only entries updated here overwrite the file, so parallel worker JVMs keep each other's results.
+    public synchronized void save() {
+        Properties properties = read();
+        for (String key : updated) {
+            properties.setProperty(key, Long.toString(durations.get(key)));
+        }
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+            try (OutputStream output = Files.newOutputStream(temp)) {
+                properties.store(output, "Test durations in ms, updated after every run");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not save duration history to " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void load() {
+        Properties properties = read();
+        for (String key : properties.stringPropertyNames()) {
+            try {
+                durations.put(key, Long.parseLong(properties.getProperty(key).trim()));
+            } catch (NumberFormatException e) {
+                System.err.println("⚠️ Ignoring invalid duration for " + key + " in " + file);
+            }
+        }
+    }
+
+    private Properties read() {
+        Properties properties = new Properties();
+        if (!Files.exists(file)) {
+            return properties;
+        }
+        try (InputStream input = Files.newInputStream(file)) {
+            properties.load(input);
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not read duration history " + file + ": " + e.getMessage());
+        }
+        return properties;
+    }
+}
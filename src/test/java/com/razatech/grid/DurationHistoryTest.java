@@ -0,0 +1,36 @@
+package com.razatech.grid;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class DurationHistoryTest {
+
+    @Test(description = "Unknown entries fall back to the default, then to the average of known ones")
+    public void estimatesColdStartAndUnknownEntries() throws Exception {
+        DurationHistory history = new DurationHistory(Files.createTempDirectory("history").resolve("d.properties"), 5000);
+        Assert.assertEquals(history.estimate("LoginTests"), 5000);
+
+        history.record("LoginTests", 1000);
+        history.record("TablePageTest", 3000);
+        Assert.assertEquals(history.estimate("LoginTests"), 1000);
+        Assert.assertEquals(history.estimate("HomePageTest"), 2000);
+        Assert.assertFalse(history.isKnown("HomePageTest"));
+    }
+
+    @Test(description = "New runs are blended into the estimate and survive a save and reload")
+    public void smoothsAndPersistsDurations() throws Exception {
+        Path file = Files.createTempDirectory("history").resolve("nested").resolve("d.properties");
+        DurationHistory history = new DurationHistory(file, 5000);
+        history.record("TablePageTest", 10000);
+        history.record("TablePageTest", 20000);
+        Assert.assertEquals(history.estimate("TablePageTest"), 13000);
+        history.save();
+
+        DurationHistory reloaded = new DurationHistory(file, 5000);
+        Assert.assertEquals(reloaded.size(), 1);
+        Assert.assertEquals(reloaded.estimate("TablePageTest"), 13000);
+    }
+}
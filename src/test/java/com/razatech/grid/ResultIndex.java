@@ -0,0 +1,140 @@
+package com.razatech.grid;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Last outcomes per test method, one tab-separated line each: method, class, outcomes (P/F/S, oldest first).
+// Kept locally because the server's /tests/case/{testCaseId}/history answers one test case per request and rates
+// flakiness over the whole history; planning from it would cost a request per test before the first one starts
+public class ResultIndex {
+
+    private static final int MAX_OUTCOMES = 10;
+
+    private final Path file;
+    private final int flakyWindow;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> updated = ConcurrentHashMap.newKeySet();
+
+    public ResultIndex(Path file, int flakyWindow) {
+        this.file = file;
+        this.flakyWindow = Math.max(2, flakyWindow);
+        entries.putAll(read());
+    }
+
+    // Method names repeat across classes, so entries are keyed by class#method
+    public static String key(String className, String methodName) {
+        return className + "#" + methodName;
+    }
+
+    public void record(String className, String methodName, String status) {
+        char outcome = "passed".equals(status) ? 'P' : "failed".equals(status) ? 'F' : 'S';
+        String key = key(className, methodName);
+        entries.compute(key, (k, entry) -> {
+            String outcomes = (entry != null ? entry.outcomes : "") + outcome;
+            return new Entry(className, methodName, outcomes.substring(Math.max(0, outcomes.length() - MAX_OUTCOMES)));
+        });
+        updated.add(key);
+    }
+
+    public String rerunReason(String className, String methodName) {
+        return rerunReason(entries.get(key(className, methodName)));
+    }
+
+    // "failed" when the last run that did not skip failed, "flaky" when it passed but failed recently, otherwise
+    // null. A skip (e.g. from fail-fast) says nothing about the test, so it is left out
+    private String rerunReason(Entry entry) {
+        String results = entry != null ? entry.outcomes.replace("S", "") : "";
+        if (results.isEmpty()) {
+            return null;
+        }
+        if (results.charAt(results.length() - 1) == 'F') {
+            return "failed";
+        }
+        String recent = results.substring(Math.max(0, results.length() - flakyWindow));
+        return recent.indexOf('F') >= 0 ? "flaky" : null;
+    }
+
+    public boolean hasReruns() {
+        return entries.values().stream().anyMatch(entry -> rerunReason(entry) != null);
+    }
+
+    // One line per test to rerun: reason, class#method and its recent outcomes
+    public List<String> rerunPlan() {
+        List<String> plan = new ArrayList<>();
+        new TreeMap<>(entries).forEach((key, entry) -> {
+            String reason = rerunReason(entry);
+            if (reason != null) {
+                plan.add(reason + "\t" + key + "\t" + entry.outcomes);
+            }
+        });
+        return plan;
+    }
+
+    // Only tests recorded by this JVM overwrite the file, so parallel shard workers keep each other's results
+    public synchronized void save() {
+        Map<String, Entry> merged = new TreeMap<>(read());
+        for (String key : updated) {
+            merged.put(key, entries.get(key));
+        }
+        List<String> lines = new ArrayList<>();
+        merged.forEach((key, entry) -> lines.add(entry.methodName + "\t" + entry.className + "\t" + entry.outcomes));
+        write(file, lines);
+    }
+
+    public static void write(Path target, List<String> lines) {
+        try {
+            Path parent = target.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (String line : lines) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not write " + target + ": " + e.getMessage());
+        }
+    }
+
+    private Map<String, Entry> read() {
+        Map<String, Entry> loaded = new TreeMap<>();
+        if (!Files.exists(file)) {
+            return loaded;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] fields = line.split("\t");
+                if (fields.length == 3) {
+                    loaded.put(key(fields[1], fields[0]), new Entry(fields[1], fields[0], fields[2]));
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not read result index " + file + ": " + e.getMessage());
+        }
+        return loaded;
+    }
+
+    private static class Entry {
+        final String className;
+        final String methodName;
+        final String outcomes;
+
+        Entry(String className, String methodName, String outcomes) {
+            this.className = className;
+            this.methodName = methodName;
+            this.outcomes = outcomes;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.razatech.grid;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class ResultIndexTest {
+
+    @Test(description = "The last failure and recent flip-flops are planned for rerun, stable passes are not")
+    public void plansFailedAndFlakyTests() throws Exception {
+        ResultIndex index = new ResultIndex(Files.createTempDirectory("index").resolve("results.tsv"), 3);
+        index.record("LoginTests", "verifyLogin", "passed");
+        index.record("TablePageTest", "verifyFilter", "passed");
+        index.record("TablePageTest", "verifyFilter", "failed");
+        index.record("TablePageTest", "verifySort", "failed");
+        index.record("TablePageTest", "verifySort", "passed");
+        index.record("HomePageTest", "verifyFooter", "failed");
+        for (int i = 0; i < 3; i++) {
+            index.record("HomePageTest", "verifyFooter", "passed");
+        }
+
+        Assert.assertNull(index.rerunReason("LoginTests", "verifyLogin"));
+        Assert.assertEquals(index.rerunReason("TablePageTest", "verifyFilter"), "failed");
+        Assert.assertEquals(index.rerunReason("TablePageTest", "verifySort"), "flaky");
+        Assert.assertNull(index.rerunReason("HomePageTest", "verifyFooter"), "A failure outside the flaky window is forgotten");
+        Assert.assertEquals(index.rerunPlan(), Arrays.asList(
+            "failed\tTablePageTest#verifyFilter\tPF",
+            "flaky\tTablePageTest#verifySort\tFP"));
+    }
+
+    @Test(description = "Skips leave the last real result in place, and equal method names in two classes stay apart")
+    public void ignoresSkipsAndKeysByClass() throws Exception {
+        ResultIndex index = new ResultIndex(Files.createTempDirectory("index").resolve("results.tsv"), 3);
+        index.record("LoginTests", "verifyTitle", "passed");
+        index.record("LoginTests", "verifyTitle", "skipped");
+        index.record("HomePageTest", "verifyTitle", "passed");
+        index.record("HomePageTest", "verifyTitle", "failed");
+        index.record("HomePageTest", "verifyTitle", "skipped");
+        index.record("TablePageTest", "verifyTitle", "skipped");
+
+        Assert.assertNull(index.rerunReason("LoginTests", "verifyTitle"), "A skip after a pass is not a failure");
+        Assert.assertEquals(index.rerunReason("HomePageTest", "verifyTitle"), "failed");
+        Assert.assertNull(index.rerunReason("TablePageTest", "verifyTitle"), "A test that only skipped has no result");
+        Assert.assertEquals(index.rerunPlan(), Arrays.asList("failed\tHomePageTest#verifyTitle\tPFS"));
+    }
+
+    @Test(description = "Saving keeps entries written by another process in the meantime")
+    public void saveMergesWithOtherWriters() throws Exception {
+        Path file = Files.createTempDirectory("index").resolve("results.tsv");
+        ResultIndex first = new ResultIndex(file, 5);
+        ResultIndex second = new ResultIndex(file, 5);
+        first.record("LoginTests", "verifyLogin", "failed");
+        second.record("TablePageTest", "verifyFilter", "passed");
+        first.save();
+        second.save();
+
+        ResultIndex reloaded = new ResultIndex(file, 5);
+        Assert.assertEquals(reloaded.rerunReason("LoginTests", "verifyLogin"), "failed");
+        Assert.assertTrue(reloaded.hasReruns());
+        Assert.assertEquals(Files.readAllLines(file).size(), 2);
+    }
+}
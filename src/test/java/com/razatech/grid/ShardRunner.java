@@ -0,0 +1,297 @@
+package com.razatech.grid;
+
+import com.razatech.reporting.PramanaConfig;
+import com.razatech.reporting.PramanaReporter;
+import org.testng.xml.SuiteXmlParser;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+// Spreads the test classes of one <test> across local worker JVMs, each driving its own headless browser.
+// Idle workers take the longest remaining class first; every shard reports into the same Pramana suite.
+public class ShardRunner {
+
+    // Settings a worker must see even when they were only given to this JVM with -D
+    private static final List<String> FORWARDED_PREFIXES = Arrays.asList(
+        "api.", "http.", "reporter.", "driver.", "wait.", "page.", "env");
+
+    public static void main(String[] args) throws Exception {
+        String suiteFile = PramanaConfig.get("shard.suite.file", "testng.xml");
+        String testName = PramanaConfig.get("shard.test", null);
+        int workerCount = Math.max(1, PramanaConfig.getInt("shard.workers", 2));
+        List<String> browsers = Arrays.asList(PramanaConfig.get("shard.browsers", "chrome").split("\\s*,\\s*"));
+        boolean matrix = PramanaConfig.getBoolean("shard.matrix", false);
+        DurationHistory history = new DurationHistory(
+            Paths.get(PramanaConfig.get("shard.history.file", ".pramana/class-durations.properties")),
+            PramanaConfig.getLong("shard.default.duration.ms", 30000));
+
+        XmlSuite xmlSuite;
+        try (InputStream in = Files.newInputStream(Paths.get(suiteFile))) {
+            xmlSuite = new SuiteXmlParser().parse(suiteFile, in, false);
+        }
+        XmlTest xmlTest = findTest(xmlSuite, testName);
+        List<Shard> queue = new LinkedList<>();
+        for (XmlClass xmlClass : xmlTest.getXmlClasses()) {
+            // In matrix mode every class runs once per browser, otherwise once on whichever worker is free
+            for (String browser : matrix ? browsers : Collections.<String>singletonList(null)) {
+                queue.add(new Shard(xmlClass.getName(), browser, history.estimate(key(xmlClass.getName(), browser))));
+            }
+        }
+        queue.sort(Comparator.comparingLong((Shard shard) -> shard.estimateMillis).reversed());
+
+        PramanaReporter.createSuite(xmlSuite.getName(),
+            System.getProperty("env", "staging"), Arrays.asList("automated", "testng", "sharded"));
+        // Workers are other JVMs, so they need the server's ID rather than a spooled local one
+        String suiteId = PramanaReporter.awaitServerSuiteId();
+        if (suiteId == null) {
+            System.err.println("⚠️ Pramana suite not created yet, each worker reports into a suite of its own");
+        }
+        System.out.println("ℹ️ Sharding " + queue.size() + " classes from " + suiteFile + " [" + xmlTest.getName()
+            + "] across " + workerCount + " workers (" + String.join(", ", browsers) + ")");
+
+        BlockingQueue<Worker> idle = new LinkedBlockingQueue<>();
+        List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) {
+            String browser = browsers.get(i % browsers.size());
+            workers.add(new Worker(browser + "-" + (i + 1), browser, xmlSuite.getName(), suiteId, idle));
+        }
+
+        long start = System.currentTimeMillis();
+        int live = workers.size();
+        int passed = 0;
+        int failed = 0;
+        int skipped = 0;
+        while (live > 0) {
+            Worker worker = idle.take();
+            Shard finished = worker.takeResult();
+            if (finished != null) {
+                // A crashed shard never reported its duration; a guess would drag the class's estimate down
+                if (finished.completed) {
+                    history.record(key(finished.className, finished.browser), finished.durationMillis);
+                }
+                passed += finished.passed;
+                failed += finished.failed;
+                skipped += finished.skipped;
+            }
+            if (!worker.isAlive()) {
+                live--;
+                continue;
+            }
+
+            Shard next = nextFor(worker, queue);
+            if (next == null) {
+                worker.exit();
+            } else {
+                worker.run(next);
+            }
+        }
+
+        for (Shard shard : queue) {
+            System.err.println("❌ " + shard + " was not run: no " + (shard.browser != null ? shard.browser + " " : "")
+                + "worker left");
+            failed++;
+        }
+
+        PramanaReporter.completeSuite();
+        PramanaReporter.shutdown();
+        history.save();
+
+        long elapsed = System.currentTimeMillis() - start;
+        System.out.println((failed == 0 ? "✅" : "❌") + " Sharded run finished in " + elapsed + " ms: "
+            + passed + " passed, " + failed + " failed, " + skipped + " skipped"
+            + (suiteId != null ? " (Pramana suite " + suiteId + ")" : ""));
+        System.exit(failed == 0 ? 0 : 1);
+    }
+
+    private static XmlTest findTest(XmlSuite suite, String testName) {
+        for (XmlTest test : suite.getTests()) {
+            if (testName == null || test.getName().equals(testName)) {
+                return test;
+            }
+        }
+        throw new IllegalArgumentException("No <test name=\"" + testName + "\"> in suite " + suite.getName());
+    }
+
+    // Longest remaining class this worker's browser can run
+    private static Shard nextFor(Worker worker, List<Shard> queue) {
+        Iterator<Shard> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            Shard shard = iterator.next();
+            if (shard.browser == null || shard.browser.equals(worker.browser)) {
+                iterator.remove();
+                return shard;
+            }
+        }
+        return null;
+    }
+
+    private static String key(String className, String browser) {
+        return browser != null ? className + "@" + browser : className;
+    }
+
+    // Worker JVMs need the test classpath, which under exec:java lives in a class loader, not java.class.path
+    private static String classpath() throws URISyntaxException {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (!(loader instanceof URLClassLoader)) {
+            return System.getProperty("java.class.path");
+        }
+        List<String> entries = new ArrayList<>();
+        for (URL url : ((URLClassLoader) loader).getURLs()) {
+            entries.add(Paths.get(url.toURI()).toString());
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static class Shard {
+        final String className;
+        final String browser;
+        final long estimateMillis;
+        boolean completed;
+        long durationMillis;
+        int passed;
+        int failed;
+        int skipped;
+
+        Shard(String className, String browser, long estimateMillis) {
+            this.className = className;
+            this.browser = browser;
+            this.estimateMillis = estimateMillis;
+        }
+
+        @Override
+        public String toString() {
+            return className + (browser != null ? " on " + browser : "");
+        }
+    }
+
+    private static class Worker {
+        final String name;
+        final String browser;
+        private final Process process;
+        private final PrintWriter commands;
+        private final BlockingQueue<Worker> idle;
+        private volatile Shard current;
+        private volatile Shard result;
+        private volatile boolean alive = true;
+
+        Worker(String name, String browser, String suiteName, String suiteId, BlockingQueue<Worker> idle)
+                throws IOException, URISyntaxException {
+            this.name = name;
+            this.browser = browser;
+            this.idle = idle;
+
+            List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            for (String key : System.getProperties().stringPropertyNames()) {
+                if (FORWARDED_PREFIXES.stream().anyMatch(key::startsWith)) {
+                    command.add("-D" + key + "=" + System.getProperty(key));
+                }
+            }
+            if (suiteId != null) {
+                command.add("-Dsuite.id=" + suiteId);
+            }
+            // Output is read back as UTF-8, whatever the platform default is
+            command.add("-Dstdout.encoding=UTF-8");
+            command.add("-Dstderr.encoding=UTF-8");
+            command.add("-Dbrowser=" + browser);
+            command.add("-Dshard.id=" + name);
+            command.add("-Dshard.suite.name=" + suiteName);
+            command.add("-Dshard.thread.count=" + PramanaConfig.getInt("shard.thread.count", 1));
+            command.add("-cp");
+            command.add(classpath());
+            command.add(ShardWorker.class.getName());
+
+            this.process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            this.commands = new PrintWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8), true);
+            Thread reader = new Thread(this::read, "shard-" + name);
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        // Echoes the worker's output with its name and turns protocol lines into idle notifications
+        private void read() {
+            try (BufferedReader output = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = output.readLine()) != null) {
+                    if (line.equals(ShardWorker.READY)) {
+                        idle.offer(this);
+                    } else if (line.startsWith(ShardWorker.DONE + " ")) {
+                        finish(line.split(" "));
+                        idle.offer(this);
+                    } else {
+                        System.out.println("[" + name + "] " + line);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("⚠️ Lost output of worker " + name + ": " + e.getMessage());
+            }
+
+            // The process is gone; a class it was running counts as failed
+            if (current != null) {
+                System.err.println("❌ Worker " + name + " exited while running " + current);
+                current.failed = 1;
+                result = current;
+                current = null;
+            }
+            alive = false;
+            idle.offer(this);
+        }
+
+        private void finish(String[] fields) {
+            Shard shard = current;
+            current = null;
+            shard.completed = true;
+            shard.durationMillis = Long.parseLong(fields[2]);
+            shard.passed = Integer.parseInt(fields[3]);
+            shard.failed = Integer.parseInt(fields[4]);
+            shard.skipped = Integer.parseInt(fields[5]);
+            System.out.println((shard.failed == 0 ? "✅ " : "❌ ") + shard + " finished on " + name + " in "
+                + shard.durationMillis + " ms (estimated " + shard.estimateMillis + " ms)");
+            result = shard;
+        }
+
+        Shard takeResult() {
+            Shard finished = result;
+            result = null;
+            return finished;
+        }
+
+        boolean isAlive() {
+            return alive;
+        }
+
+        void run(Shard shard) {
+            current = shard;
+            commands.println(shard.className);
+        }
+
+        void exit() {
+            commands.println(ShardWorker.EXIT);
+            commands.close();
+        }
+    }
+}
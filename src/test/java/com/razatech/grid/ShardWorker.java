@@ -0,0 +1,76 @@
+package com.razatech.grid;
+
+import com.razatech.listeners.DurationScheduler;
+import com.razatech.listeners.FailFastGuard;
+import com.razatech.listeners.PramanaListener;
+import com.razatech.reporting.PramanaConfig;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+// One browser worker JVM: runs the test classes the ShardRunner sends on stdin, one at a time
+public class ShardWorker {
+
+    static final String READY = "##shard-ready";
+    static final String DONE = "##shard-done";
+    static final String EXIT = "##shard-exit";
+
+    public static void main(String[] args) throws IOException {
+        String suiteName = PramanaConfig.get("shard.suite.name", "Sharded Suite");
+        int threadCount = PramanaConfig.getInt("shard.thread.count", 1);
+
+        BufferedReader commands = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        System.out.println(READY);
+
+        String className;
+        while ((className = commands.readLine()) != null && !className.equals(EXIT)) {
+            long start = System.currentTimeMillis();
+            TestListenerAdapter results = new TestListenerAdapter();
+            try {
+                run(suiteName, className, threadCount, results);
+            } catch (Exception e) {
+                System.err.println("❌ Failed to run " + className + ": " + e.getMessage());
+            }
+            long duration = System.currentTimeMillis() - start;
+
+            // A class that could not even start counts as failed
+            int failed = results.getFailedTests().size() + results.getConfigurationFailures().size();
+            if (results.getPassedTests().isEmpty() && failed == 0 && results.getSkippedTests().isEmpty()) {
+                failed = 1;
+            }
+            System.out.println(DONE + " " + className + " " + duration + " " + results.getPassedTests().size()
+                + " " + failed + " " + results.getSkippedTests().size());
+        }
+        System.exit(0);
+    }
+
+    private static void run(String suiteName, String className, int threadCount, TestListenerAdapter results) {
+        XmlSuite suite = new XmlSuite();
+        suite.setName(suiteName);
+        suite.setVerbose(0);
+        if (threadCount > 1) {
+            suite.setParallel(XmlSuite.ParallelMode.METHODS);
+            suite.setThreadCount(threadCount);
+        }
+        XmlTest test = new XmlTest(suite);
+        test.setName(className.substring(className.lastIndexOf('.') + 1));
+        test.setXmlClasses(Collections.singletonList(new XmlClass(className)));
+
+        TestNG testng = new TestNG(false);
+        testng.setUseDefaultListeners(false);
+        testng.setXmlSuites(Collections.singletonList(suite));
+        testng.addListener(new PramanaListener());
+        testng.addListener(new DurationScheduler());
+        testng.addListener(new FailFastGuard());
+        testng.addListener(results);
+        testng.run();
+    }
+}
@@ -0,0 +1,82 @@
+package com.razatech.listeners;
+
+import com.razatech.grid.DurationHistory;
+import com.razatech.grid.ResultIndex;
+import com.razatech.reporting.PramanaConfig;
+import com.razatech.reporting.PramanaReporter;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Longest-processing-time-first ordering: with parallel="methods" each free thread takes the longest
+// remaining test, so a slow test such as a CSV download no longer starts last and stretches the run
+public class DurationScheduler implements IMethodInterceptor {
+
+    private static final boolean ENABLED = PramanaConfig.getBoolean("scheduler.enabled", true);
+    private static final DurationHistory history = new DurationHistory(
+        Paths.get(PramanaConfig.get("scheduler.history.file", ".pramana/test-durations.properties")),
+        PramanaConfig.getLong("scheduler.default.duration.ms", 10000));
+
+    private final DurationHistory durations;
+
+    public DurationScheduler() {
+        this(history);
+    }
+
+    DurationScheduler(DurationHistory durations) {
+        this.durations = durations;
+    }
+
+    // Called by PramanaListener with the duration it reports for each finished test
+    public static void record(ITestNGMethod method, long durationMillis) {
+        history.record(key(method), durationMillis);
+    }
+
+    static String key(ITestNGMethod method) {
+        return ResultIndex.key(method.getRealClass().getName(), method.getMethodName());
+    }
+
+    public static void save() {
+        history.save();
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        // Failed and flaky tests from the last run go first when rerun.mode asks for it
+        List<IMethodInstance> ordered = new ArrayList<>(RerunPlanner.select(methods));
+        // The suite announced all its methods at start; the progress stream must count only those that will run
+        if (ordered.size() != methods.size()) {
+            PramanaReporter.adjustExpectedTests(ordered.size() - methods.size());
+        }
+        Comparator<IMethodInstance> order = Comparator.comparing(method -> !RerunPlanner.runsFirst(method));
+        if (!ENABLED || ordered.size() < 2) {
+            ordered.sort(order);
+            return ordered;
+        }
+        ordered.sort(order.thenComparing(Comparator.comparingLong(this::estimate).reversed()));
+
+        long total = 0;
+        long longest = 0;
+        for (IMethodInstance method : ordered) {
+            long estimate = estimate(method);
+            total += estimate;
+            longest = Math.max(longest, estimate);
+        }
+        int threads = context.getCurrentXmlTest().getParallel().isParallel()
+            ? Math.max(1, context.getCurrentXmlTest().getThreadCount()) : 1;
+        System.out.println("ℹ️ Scheduled " + ordered.size() + " tests in " + context.getName() + " longest first: "
+            + total + " ms of work, ideal wall-clock " + Math.max(longest, total / threads) + " ms on "
+            + threads + " threads");
+        return ordered;
+    }
+
+    private long estimate(IMethodInstance method) {
+        return durations.estimate(key(method.getMethod()));
+    }
+}
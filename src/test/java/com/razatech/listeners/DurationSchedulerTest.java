@@ -0,0 +1,72 @@
+package com.razatech.listeners;
+
+import com.razatech.grid.DurationHistory;
+import org.testng.Assert;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class DurationSchedulerTest {
+
+    @Test(description = "Known long tests start first and unknown ones are placed by the average estimate")
+    public void runsLongestTestsFirst() throws Exception {
+        DurationHistory history = new DurationHistory(Files.createTempDirectory("scheduler").resolve("d.properties"), 1000);
+        history.record(Sample.class.getName() + "#quickCheck", 200);
+        history.record(Sample.class.getName() + "#downloadReport", 9000);
+        history.record(Sample.class.getName() + "#filterTable", 4000);
+
+        XmlSuite suite = new XmlSuite();
+        suite.setName("SchedulerSuite");
+        suite.setParallel(XmlSuite.ParallelMode.METHODS);
+        suite.setThreadCount(1);
+        XmlTest test = new XmlTest(suite);
+        test.setName("SchedulerTest");
+        test.setXmlClasses(Collections.singletonList(new XmlClass(Sample.class)));
+
+        // Recorded by a listener of this run only, since the outer suite may pick up Sample and run it too
+        List<String> started = new CopyOnWriteArrayList<>();
+        TestNG testng = new TestNG(false);
+        testng.setUseDefaultListeners(false);
+        testng.setVerbose(0);
+        testng.setXmlSuites(Collections.singletonList(suite));
+        testng.addListener(new DurationScheduler(history));
+        testng.addListener(new ITestListener() {
+            @Override
+            public void onTestStart(ITestResult result) {
+                started.add(result.getMethod().getMethodName());
+            }
+        });
+        testng.run();
+
+        // newTest has no history and is estimated at the average of the others (4400 ms)
+        Assert.assertEquals(started, Arrays.asList("downloadReport", "newTest", "filterTable", "quickCheck"));
+    }
+
+    public static class Sample {
+        @Test
+        public void quickCheck() {
+        }
+
+        @Test
+        public void newTest() {
+        }
+
+        @Test
+        public void downloadReport() {
+        }
+
+        @Test
+        public void filterTable() {
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.razatech.listeners;
+
+import com.razatech.reporting.PramanaConfig;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+import org.testng.SkipException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Skips the rest of the suite once failfast.max.failures tests have failed (0 = never)
+public class FailFastGuard implements IInvokedMethodListener, ISuiteListener {
+
+    private final int maxFailures;
+    private final AtomicInteger failures = new AtomicInteger();
+
+    public FailFastGuard() {
+        this(PramanaConfig.getInt("failfast.max.failures", 0));
+    }
+
+    FailFastGuard(int maxFailures) {
+        this.maxFailures = maxFailures;
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        failures.set(0);
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (maxFailures > 0 && method.isTestMethod() && failures.get() >= maxFailures) {
+            throw new SkipException("Fail-fast: suite stopped after " + maxFailures + " failed tests");
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (maxFailures > 0 && method.isTestMethod() && testResult.getStatus() == ITestResult.FAILURE
+                && failures.incrementAndGet() == maxFailures) {
+            System.err.println("❌ Fail-fast: " + maxFailures + " tests failed, skipping the rest of the suite");
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.razatech.listeners;
+
+import org.testng.Assert;
+import org.testng.IInvokedMethod;
+import org.testng.ITestResult;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+
+public class FailFastGuardTest {
+
+    private static final IInvokedMethod TEST_METHOD = stub(IInvokedMethod.class, true);
+    private static final ITestResult FAILED = stub(ITestResult.class, ITestResult.FAILURE);
+    private static final ITestResult PASSED = stub(ITestResult.class, ITestResult.SUCCESS);
+
+    @Test(description = "Tests after the failure threshold are skipped instead of run")
+    public void skipsRemainingTestsAfterThreshold() {
+        FailFastGuard guard = new FailFastGuard(2);
+
+        guard.beforeInvocation(TEST_METHOD, FAILED);
+        guard.afterInvocation(TEST_METHOD, FAILED);
+        guard.beforeInvocation(TEST_METHOD, PASSED);
+        guard.afterInvocation(TEST_METHOD, PASSED);
+        guard.beforeInvocation(TEST_METHOD, FAILED);
+        guard.afterInvocation(TEST_METHOD, FAILED);
+
+        Assert.assertThrows(SkipException.class, () -> guard.beforeInvocation(TEST_METHOD, PASSED));
+
+        // A new suite starts counting again
+        guard.onStart(null);
+        guard.beforeInvocation(TEST_METHOD, PASSED);
+    }
+
+    @Test(description = "A threshold of 0 never stops the suite")
+    public void disabledByDefault() {
+        FailFastGuard guard = new FailFastGuard(0);
+        for (int i = 0; i < 5; i++) {
+            guard.beforeInvocation(TEST_METHOD, FAILED);
+            guard.afterInvocation(TEST_METHOD, FAILED);
+        }
+    }
+
+    // Every method of the stub returns the same value: isTestMethod() for methods, getStatus() for results
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Object value) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> value);
+    }
+}
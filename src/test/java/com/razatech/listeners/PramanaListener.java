@@ -1,6 +1,12 @@
 package com.razatech.listeners;
 
+import com.razatech.base.BaseTest;
+import com.razatech.reporting.PramanaConfig;
 import com.razatech.reporting.PramanaReporter;
+import com.razatech.reporting.ReporterMetrics;
+import com.razatech.reporting.StackTraces;
+import com.razatech.support.CommandTracer;
+import com.razatech.support.LocatorProfiler;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
@@ -9,30 +15,51 @@ import java.util.Arrays;
 
 public class PramanaListener implements ITestListener, ISuiteListener {
 
+    // The test ID travels with the ITestResult so parallel tests never pick up each other's ID
+    public static final String TEST_ID_ATTRIBUTE = "pramana.testId";
+    // Set on ShardRunner workers: the runner owns the suite, and tests are labelled with the worker's browser
+    private static final String SHARD_ID = PramanaConfig.get("shard.id", null);
+    // failed (default) or always
+    private static final boolean TRACE_ATTACH_ALWAYS =
+        "always".equalsIgnoreCase(PramanaConfig.get("driver.trace.attach", "failed"));
+
     @Override
     public void onStart(ISuite suite) {
         String suiteName = suite.getName();
         String environment = System.getProperty("env", "staging");
+        StackTraces.reset();
 
         PramanaReporter.createSuite(
             suiteName,
             environment,
             Arrays.asList("automated", "testng")
         );
+        // DurationScheduler lowers this when rerun.mode=failed-only leaves tests out
+        PramanaReporter.expectTests(suite.getAllMethods().size());
     }
 
     @Override
     public void onTestStart(ITestResult result) {
-        // Log test at start to get testId for step logging
+        // Register the test (or just reserve a client-side ID in lazy mode) so steps can be logged
         String testCaseId = result.getMethod().getMethodName();
         String testName = result.getMethod().getDescription() != null
             ? result.getMethod().getDescription()
             : result.getMethod().getMethodName();
+        if (SHARD_ID != null) {
+            // A matrix run has the same test once per browser in one suite; the same testCaseId would make
+            // the server treat the second browser as a rerun of the first
+            String browser = PramanaConfig.get("browser", "chrome");
+            testCaseId += "@" + browser;
+            testName += " [" + browser + "]";
+        }
 
-        String testId = PramanaReporter.logTestResult(
-            testCaseId, testName, "running", 0, null, null
-        );
-        PramanaReporter.setCurrentTestId(testId);
+        String testId = PramanaReporter.startTest(testCaseId, testName);
+        result.setAttribute(TEST_ID_ATTRIBUTE, testId);
+
+        CommandTracer tracer = BaseTest.getCommandTracer();
+        if (tracer != null) {
+            tracer.startTest();
+        }
     }
 
     @Override
@@ -45,7 +72,7 @@ public class PramanaListener implements ITestListener, ISuiteListener {
         updateTest(result, "failed");
 
         // Capture and attach screenshot on failure
-        String testId = PramanaReporter.getCurrentTestId();
+        String testId = getTestId(result);
         if (testId != null) {
             captureAndAttachScreenshot(result, testId);
         }
@@ -58,11 +85,40 @@ public class PramanaListener implements ITestListener, ISuiteListener {
 
     @Override
     public void onFinish(ISuite suite) {
-        PramanaReporter.completeSuite();
+        CommandTracer tracer = BaseTest.getCommandTracer();
+        String commandSummary = tracer != null ? tracer.suiteSummary() : null;
+        if (commandSummary != null) {
+            System.out.println("ℹ️ WebDriver command latency for suite " + suite.getName() + ":\n" + commandSummary);
+        }
+        String locatorSummary = LocatorProfiler.summary();
+        if (locatorSummary != null) {
+            System.out.println("ℹ️ Slowest page-object locators for suite " + suite.getName() + ":\n" + locatorSummary);
+        }
+
+        DurationScheduler.save();
+        RerunPlanner.save();
+
+        // Drain queued events first so every test and step lands before the suite is closed
+        PramanaReporter.flush();
+        if (SHARD_ID == null) {
+            PramanaReporter.completeSuite();
+        }
+        PramanaReporter.shutdown();
+
+        String reporterSummary = ReporterMetrics.summary();
+        if (reporterSummary != null) {
+            System.out.println("ℹ️ " + reporterSummary);
+        }
+        ReporterMetrics.writePrometheusFile();
+    }
+
+    private String getTestId(ITestResult result) {
+        Object testId = result.getAttribute(TEST_ID_ATTRIBUTE);
+        return testId != null ? (String) testId : PramanaReporter.getCurrentTestId();
     }
 
     private void updateTest(ITestResult result, String status) {
-        String testId = PramanaReporter.getCurrentTestId();
+        String testId = getTestId(result);
         if (testId == null) {
             System.err.println("⚠️ No active test to update");
             return;
@@ -75,38 +131,69 @@ public class PramanaListener implements ITestListener, ISuiteListener {
 
         if (result.getThrowable() != null) {
             errorMessage = result.getThrowable().getMessage();
-            stackTrace = Arrays.toString(result.getThrowable().getStackTrace());
+            stackTrace = StackTraces.compact(result.getThrowable(), result.getTestClass().getName());
+        }
+
+        PramanaReporter.finishTest(testId, status, duration, errorMessage, stackTrace);
+        attachNetworkReport(result, testId, status);
+        if (!"skipped".equals(status)) {
+            DurationScheduler.record(result.getMethod(), duration);
         }
+        RerunPlanner.record(result.getTestClass().getName(), result.getMethod().getMethodName(), status);
+        attachCommandSummary(result, testId, status);
+    }
 
-        PramanaReporter.updateTestResult(testId, status, duration, errorMessage, stackTrace);
+    private void attachNetworkReport(ITestResult result, String testId, String status) {
+        if (!(result.getInstance() instanceof BaseTest)) {
+            return;
+        }
+        String report = ((BaseTest) result.getInstance()).networkReport("failed".equals(status));
+        if (report != null) {
+            PramanaReporter.attachText(testId, result.getMethod().getMethodName() + "-network.txt",
+                report, "Page load and request timings");
+        }
+    }
+
+    private void attachCommandSummary(ITestResult result, String testId, String status) {
+        CommandTracer tracer = BaseTest.getCommandTracer();
+        // Always finished so the next test starts with empty tables
+        String summary = tracer != null ? tracer.finishTest() : null;
+        if (summary != null && (TRACE_ATTACH_ALWAYS || "failed".equals(status))) {
+            PramanaReporter.attachText(testId, result.getMethod().getMethodName() + "-webdriver-commands.txt",
+                summary, "WebDriver command latency");
+        }
     }
 
     private void captureAndAttachScreenshot(ITestResult result, String testId) {
         try {
             Object testInstance = result.getInstance();
 
-            // Try to get driver field from test class
+            // Try to get driver from BaseTest, falling back to a driver field on the test class
             WebDriver driver = null;
-            try {
-                java.lang.reflect.Field driverField = testInstance.getClass().getSuperclass().getDeclaredField("driver");
-                driverField.setAccessible(true);
-                driver = (WebDriver) driverField.get(testInstance);
-            } catch (NoSuchFieldException e) {
-                // Try getting from the test class itself if not in superclass
-                java.lang.reflect.Field driverField = testInstance.getClass().getDeclaredField("driver");
-                driverField.setAccessible(true);
-                driver = (WebDriver) driverField.get(testInstance);
+            if (testInstance instanceof BaseTest) {
+                driver = ((BaseTest) testInstance).getDriver();
+            } else {
+                try {
+                    java.lang.reflect.Field driverField = testInstance.getClass().getSuperclass().getDeclaredField("driver");
+                    driverField.setAccessible(true);
+                    driver = (WebDriver) driverField.get(testInstance);
+                } catch (NoSuchFieldException e) {
+                    // Try getting from the test class itself if not in superclass
+                    java.lang.reflect.Field driverField = testInstance.getClass().getDeclaredField("driver");
+                    driverField.setAccessible(true);
+                    driver = (WebDriver) driverField.get(testInstance);
+                }
             }
 
             if (driver != null) {
-                String base64Screenshot = ((TakesScreenshot) driver)
-                    .getScreenshotAs(OutputType.BASE64);
+                byte[] screenshot = ((TakesScreenshot) driver)
+                    .getScreenshotAs(OutputType.BYTES);
 
                 String screenshotName = result.getMethod().getMethodName() + "-failure.png";
                 String description = "Screenshot captured on test failure";
 
                 PramanaReporter.attachScreenshot(testId, null, screenshotName,
-                    base64Screenshot, description);
+                    screenshot, description);
 
                 System.out.println("✅ Screenshot captured and attached: " + screenshotName);
             }
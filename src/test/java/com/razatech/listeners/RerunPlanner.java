@@ -0,0 +1,55 @@
+package com.razatech.listeners;
+
+import com.razatech.grid.ResultIndex;
+import com.razatech.reporting.PramanaConfig;
+import org.testng.IMethodInstance;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Keeps the last results per test method and turns them into a rerun plan for the next build.
+// rerun.mode: all (default), failed-first (failed and flaky tests start first) or failed-only
+public class RerunPlanner {
+
+    private static final String MODE = PramanaConfig.get("rerun.mode", "all").toLowerCase();
+    private static final ResultIndex index = new ResultIndex(
+        Paths.get(PramanaConfig.get("rerun.index.file", ".pramana/results-index.tsv")),
+        PramanaConfig.getInt("rerun.flaky.window", 5));
+
+    private RerunPlanner() {
+    }
+
+    public static void record(String className, String methodName, String status) {
+        index.record(className, methodName, status);
+    }
+
+    public static boolean runsFirst(IMethodInstance method) {
+        return !"all".equals(MODE)
+            && index.rerunReason(method.getMethod().getRealClass().getName(), method.getMethod().getMethodName()) != null;
+    }
+
+    // In failed-only mode just the failed and flaky tests are kept; after a green build everything runs
+    public static List<IMethodInstance> select(List<IMethodInstance> methods) {
+        if (!"failed-only".equals(MODE) || !index.hasReruns()) {
+            return methods;
+        }
+        List<IMethodInstance> selected = methods.stream()
+            .filter(RerunPlanner::runsFirst)
+            .collect(Collectors.toList());
+        System.out.println("ℹ️ Rerunning only failed and flaky tests: " + selected.size() + " of " + methods.size());
+        return selected;
+    }
+
+    // Saves the index and writes the failed and flaky tests to rerun.plan.file
+    public static void save() {
+        index.save();
+        List<String> plan = index.rerunPlan();
+        String planFile = PramanaConfig.get("rerun.plan.file", ".pramana/rerun-plan.txt");
+        ResultIndex.write(Paths.get(planFile), plan);
+        if (!plan.isEmpty()) {
+            System.out.println("ℹ️ Rerun plan with " + plan.size() + " failed or flaky tests written to " + planFile
+                + " - run them with -Drerun.mode=failed-only");
+        }
+    }
+}
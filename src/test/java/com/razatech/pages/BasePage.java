@@ -0,0 +1,169 @@
+package com.razatech.pages;
+
+import com.razatech.reporting.PramanaConfig;
+import com.razatech.support.LocatorProfiler;
+import com.razatech.support.Waits;
+import org.openqa.selenium.By;
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public abstract class BasePage {
+    // Reads the body cells of a table in one round trip; hidden cells read as "" like WebElement.getText()
+    private static final String TABLE_SCRIPT =
+        "var table = document.querySelector(arguments[0]);"
+            + "if (!table) return [];"
+            + "var column = arguments[1];"
+            + "var text = function (cell) { return cell.getClientRects().length === 0 ? '' : cell.innerText.trim(); };"
+            + "var result = [];"
+            + "for (var b = 0; b < table.tBodies.length; b++) {"
+            + "  var rows = table.tBodies[b].rows;"
+            + "  for (var r = 0; r < rows.length; r++) {"
+            + "    var cells = [];"
+            + "    for (var c = 0; c < rows[r].children.length; c++) {"
+            + "      if (rows[r].children[c].tagName === 'TD') cells.push(rows[r].children[c]);"
+            + "    }"
+            + "    if (column > 0) {"
+            + "      if (cells.length >= column) result.push(text(cells[column - 1]));"
+            + "    } else {"
+            + "      result.push(cells.map(text));"
+            + "    }"
+            + "  }"
+            + "}"
+            + "return result;";
+
+    private static final boolean BULK_EXTRACTION = PramanaConfig.getBoolean("page.bulk.extraction", true);
+    private static final boolean ELEMENT_CACHE = PramanaConfig.getBoolean("page.element.cache", true);
+
+    protected final WebDriver driver;
+    protected final Waits waits;
+    // A page object belongs to one test thread, so a plain map is enough
+    private final Map<By, WebElement> elementCache = new HashMap<>();
+
+    protected BasePage(WebDriver driver) {
+        this.driver = driver;
+        this.waits = new Waits(driver);
+    }
+
+    // Conditions that must hold before the page can be used, checked in order
+    protected abstract List<ExpectedCondition<?>> readinessConditions();
+
+    public void waitUntilReady() {
+        waits.untilAll(readinessConditions());
+    }
+
+    // All body rows of the table as a row/column matrix, or null if the bulk script cannot run
+    protected List<List<String>> readTable(String tableCss) {
+        Object result = runTableScript(tableCss, 0);
+        if (result == null) {
+            return null;
+        }
+        List<List<String>> rows = new ArrayList<>();
+        for (Object row : (List<?>) result) {
+            List<String> cells = new ArrayList<>();
+            for (Object cell : (List<?>) row) {
+                cells.add(String.valueOf(cell));
+            }
+            rows.add(cells);
+        }
+        return rows;
+    }
+
+    // One column (1-based, like td[n] in XPath), or null if the bulk script cannot run
+    protected List<String> readColumn(String tableCss, int column) {
+        Object result = runTableScript(tableCss, column);
+        if (result == null) {
+            return null;
+        }
+        List<String> cells = new ArrayList<>();
+        for (Object cell : (List<?>) result) {
+            cells.add(String.valueOf(cell));
+        }
+        return cells;
+    }
+
+    private Object runTableScript(String tableCss, int column) {
+        if (!BULK_EXTRACTION || !(driver instanceof JavascriptExecutor)) {
+            return null;
+        }
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(TABLE_SCRIPT, tableCss, column);
+            return result instanceof List ? result : null;
+        } catch (WebDriverException e) {
+            System.err.println("⚠️ Bulk table extraction failed, falling back to per-element reads: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Per-element fallback: one getText round trip per element
+    protected List<String> textsOf(By locator) {
+        return withElements(locator, elements -> elements.stream()
+                .map(WebElement::getText)
+                .collect(Collectors.toList()));
+    }
+
+    // All current matches; lists change shape with the page, so they are always looked up in one findElements call
+    protected List<WebElement> findAll(By locator) {
+        long start = System.nanoTime();
+        List<WebElement> elements = driver.findElements(locator);
+        LocatorProfiler.record(getClass().getSimpleName(), locator, System.nanoTime() - start, false);
+        return elements;
+    }
+
+    // First match, reused without any browser call until it goes stale; waits for it to appear when there is none
+    protected WebElement find(By locator) {
+        long start = System.nanoTime();
+        WebElement element = ELEMENT_CACHE ? elementCache.get(locator) : null;
+        boolean hit = element != null;
+        if (!hit) {
+            List<WebElement> elements = driver.findElements(locator);
+            element = elements.isEmpty() ? waits.present(locator) : elements.get(0);
+            if (ELEMENT_CACHE) {
+                elementCache.put(locator, element);
+            }
+        }
+        LocatorProfiler.record(getClass().getSimpleName(), locator, System.nanoTime() - start, hit);
+        return element;
+    }
+
+    // Runs the action on the element, looking it up again once if the cached reference went stale
+    protected <T> T withElement(By locator, Function<WebElement, T> action) {
+        try {
+            return action.apply(find(locator));
+        } catch (StaleElementReferenceException e) {
+            elementCache.remove(locator);
+            return action.apply(find(locator));
+        }
+    }
+
+    protected <T> T withElements(By locator, Function<List<WebElement>, T> action) {
+        try {
+            return action.apply(findAll(locator));
+        } catch (StaleElementReferenceException e) {
+            return action.apply(findAll(locator));
+        }
+    }
+
+    // Clicks the cached element, falling back to waiting for visibility if it cannot be clicked yet
+    protected void click(By locator) {
+        try {
+            withElement(locator, element -> {
+                element.click();
+                return null;
+            });
+        } catch (ElementNotInteractableException e) {
+            waits.visible(locator).click();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.razatech.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class ElementCacheTest {
+
+    private static final By ROWS = By.xpath("//table/tbody/tr");
+
+    @Test(description = "A found element is reused without any browser call until it goes stale")
+    public void reusesFoundElementWithoutBrowserCalls() {
+        FakeBrowser browser = new FakeBrowser();
+        TestPage page = new TestPage(browser.driver());
+
+        WebElement first = page.find(ROWS);
+        Assert.assertSame(page.find(ROWS), first);
+        Assert.assertTrue(page.withElement(ROWS, WebElement::isDisplayed));
+        Assert.assertEquals(browser.calls, 1, "Cache hits must not call the browser");
+    }
+
+    @Test(description = "A stale cached element is looked up again and the action retried")
+    public void recoversFromStaleElements() {
+        FakeBrowser browser = new FakeBrowser();
+        TestPage page = new TestPage(browser.driver());
+        WebElement first = page.find(ROWS);
+
+        browser.generation++;
+        Assert.assertTrue(page.withElement(ROWS, WebElement::isDisplayed));
+        Assert.assertNotSame(page.find(ROWS), first);
+        Assert.assertEquals(browser.calls, 2);
+    }
+
+    @Test(description = "Lists are looked up with one findElements call each time, whatever the locator type")
+    public void findAllIsOneLookup() {
+        FakeBrowser browser = new FakeBrowser();
+        TestPage page = new TestPage(browser.driver());
+
+        Assert.assertEquals(page.findAll(By.linkText("Home")).size(), 2);
+        Assert.assertEquals(page.findAll(ROWS).size(), 2);
+        Assert.assertEquals(browser.calls, 2);
+    }
+
+    private static class TestPage extends BasePage {
+        TestPage(WebDriver driver) {
+            super(driver);
+        }
+
+        @Override
+        protected List<ExpectedCondition<?>> readinessConditions() {
+            return Collections.emptyList();
+        }
+    }
+
+    // Counts every call that costs a browser round trip; elements go stale when generation changes
+    private static class FakeBrowser {
+        int generation;
+        int calls;
+
+        WebDriver driver() {
+            return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "executeScript":
+                            calls++;
+                            return null;
+                        case "findElements":
+                            calls++;
+                            return elements();
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        }
+
+        private List<WebElement> elements() {
+            List<WebElement> elements = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                int bornIn = generation;
+                elements.add((WebElement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{WebElement.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("equals")) {
+                            return proxy == args[0];
+                        }
+                        if (method.getName().equals("hashCode")) {
+                            return System.identityHashCode(proxy);
+                        }
+                        if (bornIn != generation) {
+                            throw new StaleElementReferenceException("stale element");
+                        }
+                        return true;
+                    }));
+            }
+            return elements;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.razatech.pages;
 
+import com.razatech.support.Waits;
 import org.openqa.selenium.*;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 
-public class HomePage {
-    private WebDriver driver;
+import java.util.List;
+
+public class HomePage extends BasePage {
 
     private By navLinks = By.cssSelector("nav a");
     private By heroHeading = By.cssSelector(".hero h1, .hero-title, h1");
@@ -15,7 +18,12 @@ public class HomePage {
     private By hamburgerMenu = By.cssSelector(".menu-toggle, .hamburger");
 
     public HomePage(WebDriver driver) {
-        this.driver = driver;
+        super(driver);
+    }
+
+    @Override
+    protected List<ExpectedCondition<?>> readinessConditions() {
+        return List.of(Waits.documentReady(), Waits.elementPresent(navLinks), Waits.elementPresent(heroHeading));
     }
 
     public String getTitle() {
@@ -23,46 +31,42 @@ public class HomePage {
     }
 
     public int getNavLinkCount() {
-        return driver.findElements(navLinks).size();
+        return findAll(navLinks).size();
     }
 
     public void clickNavLink(String linkText) {
-        driver.findElement(By.linkText(linkText)).click();
+        waits.visible(By.linkText(linkText)).click();
     }
 
     public boolean isHeroVisible() {
-        return driver.findElement(heroHeading).isDisplayed();
+        return withElement(heroHeading, WebElement::isDisplayed);
     }
 
     public void clickHeroButton() {
-        driver.findElement(heroButton).click();
+        click(heroButton);
     }
 
     public int getFeatureCount() {
-        return driver.findElements(featureItems).size();
+        return findAll(featureItems).size();
     }
 
     public boolean isFooterVisible() {
-        return driver.findElement(footer).isDisplayed();
+        return withElement(footer, WebElement::isDisplayed);
     }
 
     public int getFooterLinkCount() {
-        return driver.findElements(footerLinks).size();
+        return findAll(footerLinks).size();
     }
 
     public int getSocialIconCount() {
-        return driver.findElements(socialIcons).size();
+        return findAll(socialIcons).size();
     }
 
     public boolean isHamburgerMenuVisible() {
-        try {
-            return driver.findElement(hamburgerMenu).isDisplayed();
-        } catch (NoSuchElementException e) {
-            return false;
-        }
+        return waits.isDisplayedNow(hamburgerMenu);
     }
 
     public void clickHamburgerMenu() {
-        driver.findElement(hamburgerMenu).click();
+        click(hamburgerMenu);
     }
 }
@@ -0,0 +1,43 @@
+package com.razatech.pages;
+
+import com.razatech.support.Waits;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import java.time.Duration;
+import java.util.List;
+
+public class LoginPage extends BasePage {
+
+    private By username = By.id("username");
+    private By password = By.id("password");
+    private By loginButton = By.xpath("//button[.='Login']");
+
+    public LoginPage(WebDriver driver) {
+        super(driver);
+    }
+
+    @Override
+    protected List<ExpectedCondition<?>> readinessConditions() {
+        return List.of(Waits.documentReady(), Waits.elementPresent(username));
+    }
+
+    public void login(String user, String pass) {
+        waits.present(username).sendKeys(user);
+        withElement(password, element -> {
+            element.sendKeys(pass);
+            return null;
+        });
+        click(loginButton);
+    }
+
+    // True once the form is gone, false if it is still shown after the timeout (e.g. wrong credentials)
+    public boolean waitUntilLoggedIn(Duration timeout) {
+        return waits.until(() -> !isLoginFormVisible(), timeout);
+    }
+
+    public boolean isLoginFormVisible() {
+        return waits.isDisplayedNow(username);
+    }
+}
@@ -1,12 +1,13 @@
 package com.razatech.pages;
 
+import com.razatech.support.Waits;
 import org.openqa.selenium.*;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.Select;
 import java.util.List;
 import java.util.stream.Collectors;
 
-public class TablePage {
-    private WebDriver driver;
+public class TablePage extends BasePage {
 
     private By recordsDropdown = By.id("rows-per-page");
     private By statusDropdown = By.id("status-filter");
@@ -16,8 +17,17 @@ public class TablePage {
     private By containerHeader = By.xpath("//th[contains(text(),'Container ID')]");
     private By containerIDs = By.xpath("//tbody/tr/td[1]");
 
+    private static final String TABLE_CSS = "table";
+    private static final int CONTAINER_ID_COLUMN = 1;
+    private static final int STATUS_COLUMN = 4;
+
     public TablePage(WebDriver driver) {
-        this.driver = driver;
+        super(driver);
+    }
+
+    @Override
+    protected List<ExpectedCondition<?>> readinessConditions() {
+        return List.of(Waits.documentReady(), Waits.elementPresent(tableRows));
     }
 
     public String getTitle() {
@@ -25,36 +35,51 @@ public class TablePage {
     }
 
     public void selectRecordsPerPage(String value) {
-        new Select(driver.findElement(recordsDropdown)).selectByVisibleText(value);
+        withElement(recordsDropdown, element -> {
+            new Select(element).selectByVisibleText(value);
+            return null;
+        });
     }
 
     public int getVisibleRowCount() {
-        return driver.findElements(tableRows).size();
+        return findAll(tableRows).size();
     }
 
     public void filterByStatus(String status) {
-        new Select(driver.findElement(statusDropdown)).selectByVisibleText(status);
+        withElement(statusDropdown, element -> {
+            new Select(element).selectByVisibleText(status);
+            return null;
+        });
     }
 
     public List<String> getAllStatuses() {
-        return driver.findElements(statusCells)
-                .stream()
-                .map(WebElement::getText)
-                .collect(Collectors.toList());
+        List<String> statuses = readColumn(TABLE_CSS, STATUS_COLUMN);
+        return statuses != null ? statuses : textsOf(statusCells);
     }
 
     public void clickDownloadCSV() {
-        driver.findElement(downloadCSVBtn).click();
+        click(downloadCSVBtn);
     }
 
     public void sortByContainerID() {
-        driver.findElement(containerHeader).click();
+        click(containerHeader);
     }
 
     public List<String> getContainerIDs() {
-        return driver.findElements(containerIDs)
-                .stream()
-                .map(WebElement::getText)
-                .collect(Collectors.toList());
+        List<String> ids = readColumn(TABLE_CSS, CONTAINER_ID_COLUMN);
+        return ids != null ? ids : textsOf(containerIDs);
+    }
+
+    public List<List<String>> getTableData() {
+        List<List<String>> rows = readTable(TABLE_CSS);
+        if (rows != null) {
+            return rows;
+        }
+        return withElements(tableRows, elements -> elements.stream()
+                .map(row -> row.findElements(By.tagName("td"))
+                        .stream()
+                        .map(WebElement::getText)
+                        .collect(Collectors.toList()))
+                .collect(Collectors.toList()));
     }
 }
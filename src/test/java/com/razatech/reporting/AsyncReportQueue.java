@@ -0,0 +1,243 @@
+package com.razatech.reporting;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AsyncReportQueue {
+
+    public enum OverflowPolicy {
+        BLOCK, DROP_OLDEST, SPILL;
+
+        public static OverflowPolicy fromConfig(String value) {
+            if (value == null) return BLOCK;
+            switch (value.trim().toLowerCase()) {
+                case "drop-oldest":
+                    return DROP_OLDEST;
+                case "spill":
+                case "spill-to-disk":
+                    return SPILL;
+                default:
+                    return BLOCK;
+            }
+        }
+    }
+
+    public static final String LOCAL_ID_PREFIX = "local-";
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final BlockingQueue<ReportEvent> queue;
+    private final OverflowPolicy overflowPolicy;
+    private final Path spillFile;
+    private final Path replayFile;
+    private final Map<String, String> resolvedIds = new ConcurrentHashMap<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Object spillLock = new Object();
+    private final Object flushLock = new Object();
+    private final ReportBatcher batcher;
+    private final Thread sender;
+
+    private BufferedWriter spillWriter;
+    private boolean spilling = false;
+    private volatile boolean running = true;
+
+    public AsyncReportQueue(int capacity, OverflowPolicy overflowPolicy, String spillDir, ReportBatcher batcher) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.batcher = batcher;
+        this.batcher.setOnSent((event, serverId) -> {
+            if (event.getLocalId() != null && serverId != null) {
+                resolvedIds.put(event.getLocalId(), serverId);
+            }
+        });
+        String spillName = "pramana-spill-" + ProcessHandle.current().pid();
+        this.spillFile = Paths.get(spillDir, spillName + ".jsonl");
+        this.replayFile = Paths.get(spillDir, spillName + ".replay.jsonl");
+
+        this.sender = new Thread(this::drain, "pramana-reporter-sender");
+        this.sender.setDaemon(true);
+        this.sender.start();
+    }
+
+    public void submit(ReportEvent event) {
+        if (event.createsResource()) {
+            event.setLocalId(LOCAL_ID_PREFIX + UUID.randomUUID());
+        }
+        pending.incrementAndGet();
+
+        switch (overflowPolicy) {
+            case DROP_OLDEST:
+                while (!queue.offer(event)) {
+                    if (queue.poll() != null) {
+                        dropped.incrementAndGet();
+                        completed();
+                    }
+                }
+                break;
+            case SPILL:
+                synchronized (spillLock) {
+                    // Once spilling starts everything goes to disk until the sender replays it, to keep order
+                    if (!spilling && queue.offer(event)) {
+                        return;
+                    }
+                    spill(event);
+                }
+                break;
+            default:
+                try {
+                    queue.put(event);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    completed();
+                    System.err.println("⚠️ Interrupted while queueing Pramana event");
+                }
+        }
+    }
+
+    private void spill(ReportEvent event) {
+        try {
+            if (spillWriter == null) {
+                Files.createDirectories(spillFile.getParent());
+                spillWriter = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            spillWriter.write(mapper.writeValueAsString(event));
+            spillWriter.newLine();
+            spilling = true;
+        } catch (IOException e) {
+            dropped.incrementAndGet();
+            completed();
+            System.err.println("❌ Failed to spill Pramana event to disk: " + e.getMessage());
+        }
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                ReportEvent event = queue.poll(50, TimeUnit.MILLISECONDS);
+                if (event != null) {
+                    send(event);
+                } else {
+                    replaySpill();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.err.println("❌ Pramana sender error: " + e.getMessage());
+            }
+        }
+    }
+
+    // Only called by the sender once the queue is empty, so spilled events are always older than queued ones
+    private void replaySpill() throws IOException {
+        synchronized (spillLock) {
+            if (!spilling) {
+                return;
+            }
+            spillWriter.close();
+            spillWriter = null;
+            Files.move(spillFile, replayFile, StandardCopyOption.REPLACE_EXISTING);
+            spilling = false;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                send(mapper.readValue(line, ReportEvent.class));
+            }
+        }
+        Files.deleteIfExists(replayFile);
+    }
+
+    private void send(ReportEvent event) {
+        try {
+            if (event.getTestId() != null) {
+                String testId = resolve(event.getTestId());
+                if (testId == null) {
+                    System.err.println("⚠️ Dropping " + event.getType() + " event: test was never registered");
+                    return;
+                }
+                event.setTestId(testId);
+            }
+            event.setStepId(resolve(event.getStepId()));
+
+            batcher.send(event);
+        } finally {
+            completed();
+        }
+    }
+
+    private String resolve(String id) {
+        if (id == null || !id.startsWith(LOCAL_ID_PREFIX)) {
+            return id;
+        }
+        return resolvedIds.get(id);
+    }
+
+    private void completed() {
+        if (pending.decrementAndGet() == 0) {
+            synchronized (flushLock) {
+                flushLock.notifyAll();
+            }
+        }
+    }
+
+    public boolean flush(long timeoutMs) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (flushLock) {
+            while (pending.get() > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    System.err.println("⚠️ Pramana queue flush timed out with " + pending.get() + " events pending");
+                    return false;
+                }
+                try {
+                    flushLock.wait(Math.min(remaining, 100));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        if (dropped.get() > 0) {
+            System.err.println("⚠️ Pramana queue dropped " + dropped.get() + " events due to back-pressure");
+        }
+        return true;
+    }
+
+    public void close(long timeoutMs) {
+        flush(timeoutMs);
+        running = false;
+        try {
+            sender.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getPending() {
+        return pending.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+}
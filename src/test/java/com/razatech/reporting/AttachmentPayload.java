@@ -0,0 +1,81 @@
+package com.razatech.reporting;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Raw bytes; Jackson writes them as Base64, and StreamingAttachmentEntity encodes them on the fly
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AttachmentPayload {
+
+    private String type;
+    private String name;
+    private byte[] content;
+    private String timestamp;
+    private String description;
+    private String stepId;
+
+    public AttachmentPayload() {
+    }
+
+    public AttachmentPayload(String type, String name, byte[] content, String timestamp, String description) {
+        this.type = type;
+        this.name = name;
+        this.content = content;
+        this.timestamp = timestamp;
+        this.description = description;
+    }
+
+    // Everything but the content, which is streamed separately
+    public AttachmentPayload metadata() {
+        AttachmentPayload metadata = new AttachmentPayload(type, name, null, timestamp, description);
+        metadata.setStepId(stepId);
+        return metadata;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public void setContent(byte[] content) {
+        this.content = content;
+    }
+
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(String timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getStepId() {
+        return stepId;
+    }
+
+    public void setStepId(String stepId) {
+        this.stepId = stepId;
+    }
+}
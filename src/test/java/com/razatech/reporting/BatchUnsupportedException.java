@@ -0,0 +1,9 @@
+package com.razatech.reporting;
+
+// The server answered a batch call with 404, 405 or 501, so it has no batch endpoint
+public class BatchUnsupportedException extends Exception {
+
+    public BatchUnsupportedException(int statusCode) {
+        super("Batch endpoint not available (HTTP " + statusCode + ")");
+    }
+}
@@ -0,0 +1,75 @@
+package com.razatech.reporting;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+// Opens after failureThreshold consecutive failures so calls fail at once instead of each waiting for a timeout.
+// After openMillis one trial call is let through: success closes the breaker, failure opens it again
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong();
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(int failureThreshold, long openMillis, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    // False while open; exactly one caller gets true once the open period is over
+    public boolean allowRequest() {
+        if (failureThreshold <= 0) {
+            return true;
+        }
+        switch (state.get()) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                return clock.getAsLong() - openedAt.get() >= openMillis
+                    && state.compareAndSet(State.OPEN, State.HALF_OPEN);
+            default:
+                return false;
+        }
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.getAndSet(State.CLOSED) != State.CLOSED) {
+            System.out.println("✅ Pramana server reachable again, reporting resumed");
+        }
+    }
+
+    public void onFailure() {
+        if (failureThreshold <= 0) {
+            return;
+        }
+        int failures = consecutiveFailures.incrementAndGet();
+        State current = state.get();
+        if (current == State.HALF_OPEN || (current == State.CLOSED && failures >= failureThreshold)) {
+            openedAt.set(clock.getAsLong());
+            if (state.compareAndSet(current, State.OPEN)) {
+                ReporterMetrics.circuitOpened();
+                System.err.println("⚠️ Pramana server failed " + failures + " times in a row, pausing calls for "
+                    + openMillis + " ms");
+            }
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+}
@@ -0,0 +1,48 @@
+package com.razatech.reporting;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CircuitBreakerTest {
+
+    @Test(description = "The breaker opens after consecutive failures and lets one trial call through once the open period ends")
+    public void opensAndRecovers() {
+        AtomicLong now = new AtomicLong(1000);
+        CircuitBreaker breaker = new CircuitBreaker(3, 500, now::get);
+
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED, "A success resets the failure count");
+        breaker.onFailure();
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+        Assert.assertFalse(breaker.allowRequest());
+
+        now.addAndGet(500);
+        Assert.assertTrue(breaker.allowRequest());
+        Assert.assertFalse(breaker.allowRequest(), "Only one trial call while half-open");
+        breaker.onFailure();
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.OPEN, "A failed trial opens the breaker again");
+        Assert.assertFalse(breaker.allowRequest());
+
+        now.addAndGet(500);
+        Assert.assertTrue(breaker.allowRequest());
+        breaker.onSuccess();
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+        Assert.assertTrue(breaker.allowRequest());
+    }
+
+    @Test(description = "A threshold of 0 turns the breaker off")
+    public void zeroThresholdNeverOpens() {
+        CircuitBreaker breaker = new CircuitBreaker(0, 500);
+        for (int i = 0; i < 10; i++) {
+            breaker.onFailure();
+        }
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+        Assert.assertTrue(breaker.allowRequest());
+    }
+}
@@ -0,0 +1,92 @@
+package com.razatech.reporting;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.AbstractHttpEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+// JSON body serialised into a buffer reused per thread; it must be sent before the next one is built on that thread
+class JsonEntity extends AbstractHttpEntity {
+
+    private static final int MAX_RETAINED_BYTES = 256 * 1024;
+
+    private static final JsonFactory factory = new JsonFactory();
+    private static final ThreadLocal<Buffer> buffers = ThreadLocal.withInitial(Buffer::new);
+
+    private final Buffer buffer;
+
+    // The generator stays bound to the buffer, so each body is written without creating a new one
+    private static class Buffer extends ByteArrayOutputStream {
+        private final JsonGenerator generator;
+
+        Buffer() {
+            super(4096);
+            try {
+                generator = factory.createGenerator(this);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            generator.setRootValueSeparator(null);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+    }
+
+    JsonEntity(ObjectWriter writer, Object value) throws IOException {
+        super(ContentType.APPLICATION_JSON, null);
+        Buffer current = buffers.get();
+        // Do not hold on to a buffer grown by one unusually large body
+        if (current.array().length > MAX_RETAINED_BYTES) {
+            current = new Buffer();
+            buffers.set(current);
+        }
+        current.reset();
+        try {
+            writer.writeValue(current.generator, value);
+            current.generator.flush();
+        } catch (IOException | RuntimeException e) {
+            // A generator that failed mid-value cannot be reused
+            buffers.remove();
+            throw e;
+        }
+        this.buffer = current;
+    }
+
+    @Override
+    public long getContentLength() {
+        return buffer.size();
+    }
+
+    @Override
+    public InputStream getContent() {
+        return new ByteArrayInputStream(buffer.array(), 0, buffer.size());
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer.array(), 0, buffer.size());
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,39 @@
+package com.razatech.reporting;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A test known only by its client-side ID; it is registered with the server once it finishes
+class PendingTestRun {
+
+    private final String testCaseId;
+    private final String testName;
+    private final String startTime;
+    private final List<ReportEvent> steps = new ArrayList<>();
+
+    PendingTestRun(String testCaseId, String testName, String startTime) {
+        this.testCaseId = testCaseId;
+        this.testName = testName;
+        this.startTime = startTime;
+    }
+
+    String getTestCaseId() {
+        return testCaseId;
+    }
+
+    String getTestName() {
+        return testName;
+    }
+
+    String getStartTime() {
+        return startTime;
+    }
+
+    synchronized void addStep(ReportEvent step) {
+        steps.add(step);
+    }
+
+    synchronized List<ReportEvent> getSteps() {
+        return new ArrayList<>(steps);
+    }
+}
@@ -0,0 +1,78 @@
+package com.razatech.reporting;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+public class PramanaConfig {
+
+    private static final String CONFIG_FILE = "config.properties";
+    private static final Properties properties = new Properties();
+    private static boolean loaded = false;
+
+    static {
+        load();
+    }
+
+    private static void load() {
+        try (InputStream input = PramanaConfig.class.getClassLoader().getResourceAsStream(CONFIG_FILE)) {
+            if (input != null) {
+                properties.load(input);
+                loaded = true;
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not load config.properties: " + e.getMessage());
+        }
+    }
+
+    public static boolean isLoaded() {
+        return loaded;
+    }
+
+    // System properties win over config.properties so values can be overridden with -Dkey=value
+    public static String get(String key, String defaultValue) {
+        String value = System.getProperty(key, properties.getProperty(key));
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        return value.trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = get(key, null);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("⚠️ Invalid value for " + key + ": " + value + ". Using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = get(key, null);
+        if (value == null) return defaultValue;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            System.err.println("⚠️ Invalid value for " + key + ": " + value + ". Using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static float getFloat(String key, float defaultValue) {
+        String value = get(key, null);
+        if (value == null) return defaultValue;
+        try {
+            return Float.parseFloat(value);
+        } catch (NumberFormatException e) {
+            System.err.println("⚠️ Invalid value for " + key + ": " + value + ". Using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+}
@@ -0,0 +1,82 @@
+package com.razatech.reporting;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+public class PramanaHttpClient {
+
+    private static final Object lock = new Object();
+    private static volatile CloseableHttpClient client;
+
+    // One pooled keep-alive client shared by every reporter call, created on first use
+    public static CloseableHttpClient get() {
+        CloseableHttpClient current = client;
+        if (current != null) {
+            return current;
+        }
+        synchronized (lock) {
+            if (client == null) {
+                client = create();
+            }
+            return client;
+        }
+    }
+
+    private static CloseableHttpClient create() {
+        int maxPerRoute = PramanaConfig.getInt("http.max.connections.per.route", 8);
+        int maxTotal = PramanaConfig.getInt("http.max.connections.total", Math.max(maxPerRoute, 32));
+        long keepAliveSeconds = PramanaConfig.getLong("http.keep.alive.seconds", 30);
+        long connectTimeoutMs = PramanaConfig.getLong("http.connect.timeout.ms", 2000);
+        long responseTimeoutMs = PramanaConfig.getLong("http.response.timeout.ms", 10000);
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnPerRoute(maxPerRoute)
+            .setMaxConnTotal(maxTotal)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setSocketTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(keepAliveSeconds))
+                .build())
+            .build();
+
+        RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+            .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+            .setConnectionKeepAlive(TimeValue.ofSeconds(keepAliveSeconds))
+            .build();
+
+        System.out.println("ℹ️ Pramana HTTP pool: " + maxPerRoute + " per route, " + maxTotal + " total, keep-alive "
+            + keepAliveSeconds + "s");
+
+        return HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(requestConfig)
+            // PramanaReporter retries with its own backoff and circuit breaker
+            .disableAutomaticRetries()
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofSeconds(keepAliveSeconds))
+            .build();
+    }
+
+    public static void close() {
+        synchronized (lock) {
+            if (client == null) {
+                return;
+            }
+            try {
+                client.close(CloseMode.GRACEFUL);
+            } catch (Exception e) {
+                System.err.println("⚠️ Failed to close Pramana HTTP client: " + e.getMessage());
+            } finally {
+                client = null;
+            }
+        }
+    }
+}
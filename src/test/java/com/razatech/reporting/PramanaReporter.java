@@ -2,56 +2,265 @@ package com.razatech.reporting;
 
 import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.classic.methods.HttpPut;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.entity.GzipCompressingEntity;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class PramanaReporter {
 
-    private static final String CONFIG_FILE = "config.properties";
-    private static String BASE_URL;
-    private static String currentSuiteId = null;
-    private static String currentTestId = null;
-    private static int currentStepNumber = 0;
+    private static volatile String BASE_URL;
+    private static volatile String currentSuiteId = null;
+    // Each test thread reports against its own test ID and step counter
+    private static final ThreadLocal<ReportingContext> currentContext = new ThreadLocal<>();
     private static final ObjectMapper mapper = new ObjectMapper();
+    // Writers are built once; serialising a typed payload needs no per-event reflection or map
+    static final ObjectWriter SUITE_WRITER = mapper.writerFor(SuitePayload.class);
+    static final ObjectWriter TEST_WRITER = mapper.writerFor(TestPayload.class);
+    static final ObjectWriter STEP_WRITER = mapper.writerFor(StepPayload.class);
+    static final ObjectWriter ATTACHMENT_WRITER = mapper.writerFor(AttachmentPayload.class);
+    static final ObjectWriter TEST_LIST_WRITER = mapper.writerFor(new TypeReference<List<TestPayload>>() { });
+    static final ObjectWriter STEP_LIST_WRITER = mapper.writerFor(new TypeReference<List<StepPayload>>() { });
+    private static final boolean ASYNC_ENABLED = PramanaConfig.getBoolean("reporter.async.enabled", false);
+    private static final long FLUSH_TIMEOUT_MS = PramanaConfig.getLong("reporter.async.flush.timeout.ms", 60000);
+    private static volatile AsyncReportQueue asyncQueue = null;
+    private static volatile ReportBatcher batcher = null;
+    private static final boolean LAZY_REGISTRATION = PramanaConfig.getBoolean("reporter.lazy.registration", false);
+    private static final String CLIENT_ID_PREFIX = "client-";
+    private static final Map<String, PendingTestRun> pendingTests = new ConcurrentHashMap<>();
+    private static final Map<String, String> registeredIds = new ConcurrentHashMap<>();
+    // The server must accept Content-Encoding: gzip request bodies
+    private static final boolean GZIP_ENABLED = PramanaConfig.getBoolean("reporter.gzip.enabled", false);
+    private static final long GZIP_MIN_BYTES = PramanaConfig.getLong("reporter.gzip.min.bytes", 2048);
+    private static final boolean SPOOL_ENABLED = PramanaConfig.getBoolean("reporter.spool.enabled", false);
+    private static volatile ReportSpool spool = null;
+    // Failed calls are retried with exponential backoff and jitter; POSTs only when they never reached the server
+    private static final int RETRY_MAX_ATTEMPTS = Math.max(1, PramanaConfig.getInt("reporter.retry.max.attempts", 3));
+    private static final long RETRY_BACKOFF_MS = PramanaConfig.getLong("reporter.retry.backoff.ms", 200);
+    private static final long RETRY_MAX_BACKOFF_MS = PramanaConfig.getLong("reporter.retry.max.backoff.ms", 2000);
+    private static volatile CircuitBreaker breaker = newBreaker();
+    private static final String PROGRESS_URL = PramanaConfig.get("progress.stream.url", "");
+    private static final boolean PROGRESS_ENABLED = progressEnabled();
+    private static ProgressStream progress = null;
+    private static int expectedTests = 0;
 
     static {
         loadConfiguration();
+        ReporterMetrics.gauges(PramanaReporter::queueDepth, () -> {
+            ReportSpool current = spool;
+            return current != null ? current.getUnshippedBytes() : 0;
+        }, () -> breaker.getState());
     }
 
     private static void loadConfiguration() {
-        Properties properties = new Properties();
-        try (InputStream input = PramanaReporter.class.getClassLoader().getResourceAsStream(CONFIG_FILE)) {
-            if (input != null) {
-                properties.load(input);
-                BASE_URL = properties.getProperty("api.base.url", "http://localhost:9090");
-                String configuredSuiteId = properties.getProperty("suite.id");
-
-                // Allow runtime override via system property
-                currentSuiteId = System.getProperty("suite.id", configuredSuiteId);
-
-                System.out.println("Pramana Configuration Loaded:");
-                System.out.println("  API Base URL: " + BASE_URL);
-                if (currentSuiteId != null && !currentSuiteId.isEmpty()) {
-                    System.out.println("  Using existing Suite ID: " + currentSuiteId);
+        BASE_URL = PramanaConfig.get("api.base.url", "http://localhost:9090");
+        // Allow runtime override via system property
+        currentSuiteId = PramanaConfig.get("suite.id", null);
+
+        if (PramanaConfig.isLoaded()) {
+            System.out.println("Pramana Configuration Loaded:");
+            System.out.println("  API Base URL: " + BASE_URL);
+            if (currentSuiteId != null && !currentSuiteId.isEmpty()) {
+                System.out.println("  Using existing Suite ID: " + currentSuiteId);
+            }
+        } else {
+            System.out.println("⚠️ config.properties not found. Using default BASE_URL: " + BASE_URL);
+        }
+    }
+
+    // Points the reporter at another server, e.g. a local stub in tests
+    static void configure(String baseUrl, String suiteId) {
+        BASE_URL = baseUrl;
+        currentSuiteId = suiteId;
+        breaker = newBreaker();
+    }
+
+    private static CircuitBreaker newBreaker() {
+        return new CircuitBreaker(PramanaConfig.getInt("reporter.breaker.failure.threshold", 5),
+            PramanaConfig.getLong("reporter.breaker.open.ms", 10000));
+    }
+
+    static String getBaseUrl() {
+        return BASE_URL;
+    }
+
+    private static AsyncReportQueue asyncQueue() {
+        if (!ASYNC_ENABLED) {
+            return null;
+        }
+        synchronized (PramanaReporter.class) {
+            if (asyncQueue == null) {
+                int capacity = PramanaConfig.getInt("reporter.async.queue.capacity", 1000);
+                AsyncReportQueue.OverflowPolicy policy = AsyncReportQueue.OverflowPolicy.fromConfig(
+                    PramanaConfig.get("reporter.async.overflow", "block"));
+                String spillDir = PramanaConfig.get("reporter.async.spill.dir", "target/pramana-spill");
+                asyncQueue = new AsyncReportQueue(capacity, policy, spillDir, batcher());
+                System.out.println("ℹ️ Pramana async reporting enabled (capacity " + capacity + ", " + policy + ")");
+            }
+            return asyncQueue;
+        }
+    }
+
+    // Events accepted but not yet sent: queued for the async sender plus those waiting in a batch
+    static long queueDepth() {
+        AsyncReportQueue queue = asyncQueue;
+        ReportBatcher currentBatcher = batcher;
+        return (queue != null ? queue.getPending() : 0) + (currentBatcher != null ? currentBatcher.getBuffered() : 0);
+    }
+
+    private static ReportSpool spool() {
+        if (!SPOOL_ENABLED) {
+            return null;
+        }
+        synchronized (PramanaReporter.class) {
+            if (spool == null) {
+                String dir = PramanaConfig.get("reporter.spool.dir", "target/pramana-spool");
+                try {
+                    spool = new ReportSpool(ReportSpool.newSpoolFile(dir),
+                        PramanaConfig.getBoolean("reporter.spool.fsync", false));
+                    System.out.println("ℹ️ Pramana events spooled to " + dir);
+                } catch (IOException e) {
+                    System.err.println("❌ Failed to open Pramana spool, reporting directly: " + e.getMessage());
+                    return null;
                 }
-            } else {
-                // Default values if config file not found
-                BASE_URL = "http://localhost:9090";
-                System.out.println("⚠️ config.properties not found. Using default BASE_URL: " + BASE_URL);
             }
-        } catch (IOException e) {
-            System.err.println("⚠️ Could not load config.properties: " + e.getMessage());
-            BASE_URL = "http://localhost:9090";
+            return spool;
+        }
+    }
+
+    private static boolean progressEnabled() {
+        if (!PramanaConfig.getBoolean("progress.stream.enabled", false)) {
+            return false;
+        }
+        if (PROGRESS_URL.isEmpty()) {
+            System.err.println("⚠️ progress.stream.enabled is set but progress.stream.url is empty; the Pramana API has"
+                + " no stream endpoint of its own, so the live progress stream is off");
+            return false;
+        }
+        return true;
+    }
+
+    // Opened on the first test event once the server's suite ID is known
+    private static ProgressStream progress() {
+        if (!PROGRESS_ENABLED) {
+            return null;
+        }
+        String suiteId = serverSuiteId();
+        if (suiteId == null) {
+            return null;
+        }
+        synchronized (PramanaReporter.class) {
+            if (progress == null) {
+                progress = new ProgressStream(
+                    ProgressStream.streamUri(PROGRESS_URL, suiteId),
+                    PramanaConfig.getLong("progress.stream.heartbeat.ms", 5000),
+                    PramanaConfig.getInt("progress.stream.queue.capacity", 1000),
+                    PramanaConfig.getLong("progress.stream.reconnect.ms", 5000),
+                    PramanaConfig.getLong("http.connect.timeout.ms", 2000),
+                    PramanaConfig.get("shard.id", null));
+                progress.expect(expectedTests);
+            }
+            return progress;
+        }
+    }
+
+    // Number of tests the run is expected to execute, for the progress stream's done/total and ETA
+    public static void expectTests(int tests) {
+        synchronized (PramanaReporter.class) {
+            expectedTests = tests;
+            if (progress != null) {
+                progress.expect(tests);
+            }
+        }
+    }
+
+    // Corrects the expected count once a method interceptor has left out (or added) tests
+    public static void adjustExpectedTests(int delta) {
+        synchronized (PramanaReporter.class) {
+            expectTests(Math.max(0, expectedTests + delta));
+        }
+    }
+
+    private static synchronized ReportBatcher batcher() {
+        if (batcher == null) {
+            boolean enabled = PramanaConfig.getBoolean("reporter.batch.enabled", false);
+            batcher = new ReportBatcher(
+                enabled,
+                PramanaConfig.getInt("reporter.batch.max.size", 50),
+                PramanaConfig.getLong("reporter.batch.max.age.ms", 1000),
+                PramanaConfig.getBoolean("reporter.batch.flush.on.test.end", true)
+            );
+            if (enabled) {
+                System.out.println("ℹ️ Pramana batch reporting enabled");
+            }
+        }
+        return batcher;
+    }
+
+    // Waits until every queued or batched event has been sent
+    public static void flush() {
+        // Tests that never finished are registered as still running so their steps are not lost
+        for (String testId : pendingTests.keySet()) {
+            finishTest(testId, "running", 0, null, null);
+        }
+
+        ReportSpool currentSpool;
+        AsyncReportQueue queue;
+        ReportBatcher currentBatcher;
+        synchronized (PramanaReporter.class) {
+            currentSpool = spool;
+            queue = asyncQueue;
+            currentBatcher = batcher;
+        }
+        if (currentSpool != null) {
+            currentSpool.flush(PramanaConfig.getLong("reporter.spool.flush.timeout.ms", 10000));
+        }
+        if (queue != null) {
+            queue.flush(FLUSH_TIMEOUT_MS);
+        }
+        if (currentBatcher != null) {
+            currentBatcher.flush();
+        }
+    }
+
+    public static void shutdown() {
+        synchronized (PramanaReporter.class) {
+            if (spool != null) {
+                spool.close(PramanaConfig.getLong("reporter.spool.flush.timeout.ms", 10000),
+                    PramanaConfig.getBoolean("reporter.spool.keep", false));
+                spool = null;
+            }
+            if (asyncQueue != null) {
+                asyncQueue.close(FLUSH_TIMEOUT_MS);
+                asyncQueue = null;
+            }
+            if (batcher != null) {
+                batcher.close();
+                batcher = null;
+            }
+            registeredIds.clear();
+            if (progress != null) {
+                progress.close(PramanaConfig.getLong("http.connect.timeout.ms", 2000));
+                progress = null;
+            }
         }
+        PramanaHttpClient.close();
     }
 
     public static String createSuite(String name, String environment, List<String> tags) {
@@ -61,25 +270,22 @@ public class PramanaReporter {
             return currentSuiteId;
         }
 
-        // Otherwise, create a new suite
-        try (CloseableHttpClient client = HttpClients.createDefault()) {
-            HttpPost request = new HttpPost(BASE_URL + "/api/v1/suites");
-            request.setHeader("Content-Type", "application/json");
-
-            Map<String, Object> body = Map.of(
-                "name", name,
-                "environment", environment,
-                "tags", tags
-            );
-
-            request.setEntity(new StringEntity(mapper.writeValueAsString(body)));
-
-            String response = client.execute(request, r -> {
-                return new String(r.getEntity().getContent().readAllBytes());
-            });
+        // With the spool the suite is created by its first event and gets a local ID like a test does,
+        // so the run reports even if the server is down right now
+        SuitePayload payload = new SuitePayload(name, environment, tags);
+        ReportSpool currentSpool = spool();
+        if (currentSpool != null) {
+            ReportEvent event = new ReportEvent(ReportEvent.Type.SUITE, null, null, null, payload);
+            currentSpool.append(event);
+            currentSuiteId = event.getLocalId();
+            System.out.println("ℹ️ Pramana suite creation spooled: " + currentSuiteId);
+            return currentSuiteId;
+        }
 
-            Map<String, Object> result = mapper.readValue(response, Map.class);
-            currentSuiteId = (String) result.get("id");
+        // Otherwise, create a new suite
+        try {
+            currentSuiteId = execute(new HttpPost(BASE_URL + "/api/v1/suites"),
+                new JsonEntity(SUITE_WRITER, payload), PramanaReporter::readId);
 
             System.out.println("✅ Pramana Suite Created: " + currentSuiteId);
             return currentSuiteId;
@@ -90,12 +296,44 @@ public class PramanaReporter {
         }
     }
 
+    // The server's ID for the current suite; waits for a spooled suite to be created, null if it was not in time
+    public static String awaitServerSuiteId() {
+        String suiteId = currentSuiteId;
+        ReportSpool currentSpool = spool;
+        if (suiteId == null || currentSpool == null) {
+            return suiteId;
+        }
+        currentSpool.flush(PramanaConfig.getLong("reporter.spool.flush.timeout.ms", 10000));
+        return currentSpool.resolve(suiteId);
+    }
+
+    // Null while a spooled suite has not reached the server yet
+    private static String serverSuiteId() {
+        String suiteId = currentSuiteId;
+        ReportSpool currentSpool = spool;
+        return currentSpool != null ? currentSpool.resolve(suiteId) : suiteId;
+    }
+
     public static String getCurrentSuiteId() {
         return currentSuiteId;
     }
 
     public static String getCurrentTestId() {
-        return currentTestId;
+        ReportingContext context = currentContext.get();
+        return context != null ? context.getTestId() : null;
+    }
+
+    public static ReportingContext getCurrentContext() {
+        return currentContext.get();
+    }
+
+    // Lets a helper thread started by a test report steps against that test
+    public static void setCurrentContext(ReportingContext context) {
+        if (context == null) {
+            currentContext.remove();
+        } else {
+            currentContext.set(context);
+        }
     }
 
     public static String logTestResult(String testCaseId, String testName,
@@ -106,48 +344,72 @@ public class PramanaReporter {
             return null;
         }
 
-        try (CloseableHttpClient client = HttpClients.createDefault()) {
-            HttpPost request = new HttpPost(
-                BASE_URL + "/api/v1/suites/" + currentSuiteId + "/tests"
-            );
-            request.setHeader("Content-Type", "application/json");
+        TestPayload payload = new TestPayload(testCaseId, testName, status, duration,
+            java.time.Instant.now().toString(), errorMessage, stackTrace);
 
-            Map<String, Object> body = new HashMap<>();
-            body.put("testCaseId", testCaseId);
-            body.put("testName", testName);
-            body.put("status", status);
-            body.put("duration", duration);
-            body.put("startTime", java.time.Instant.now().toString());
+        String testId = submit(new ReportEvent(ReportEvent.Type.TEST, currentSuiteId, null, null, payload));
+        setCurrentTestId(testId);
+        return testId;
+    }
 
-            if (errorMessage != null) {
-                body.put("errorMessage", errorMessage);
-            }
-            if (stackTrace != null) {
-                body.put("stackTrace", stackTrace);
-            }
+    // With lazy registration the test gets a client-side ID and nothing is sent until finishTest
+    public static String startTest(String testCaseId, String testName) {
+        String testId;
+        if (!LAZY_REGISTRATION) {
+            testId = logTestResult(testCaseId, testName, "running", 0, null, null);
+        } else if (currentSuiteId == null) {
+            System.err.println("⚠️ No active suite. Call createSuite() first.");
+            return null;
+        } else {
+            testId = CLIENT_ID_PREFIX + UUID.randomUUID();
+            pendingTests.put(testId, new PendingTestRun(testCaseId, testName, java.time.Instant.now().toString()));
+            setCurrentTestId(testId);
+        }
 
-            request.setEntity(new StringEntity(mapper.writeValueAsString(body)));
+        ProgressStream stream = progress();
+        if (stream != null) {
+            stream.testStarted(testId, testCaseId, testName);
+        }
+        return testId;
+    }
 
-            String response = client.execute(request, r -> {
-                return new String(r.getEntity().getContent().readAllBytes());
-            });
+    // Registers a pending test with its final status in one call, then sends its buffered steps
+    public static void finishTest(String testId, String status, long duration,
+                                  String errorMessage, String stackTrace) {
+        ProgressStream stream = progress();
+        if (stream != null) {
+            stream.testFinished(testId, status, duration);
+        }
 
-            Map<String, Object> result = mapper.readValue(response, Map.class);
-            String testId = (String) result.get("id");
-            currentTestId = testId;
-            currentStepNumber = 0; // Reset step counter for new test
-            System.out.println("✅ Test logged: " + testName + " [" + status + "]");
-            return testId;
+        PendingTestRun pending = testId != null ? pendingTests.remove(testId) : null;
+        if (pending == null) {
+            updateTestResult(testId, status, duration, errorMessage, stackTrace);
+            return;
+        }
 
-        } catch (Exception e) {
-            System.err.println("❌ Failed to log test: " + e.getMessage());
-            return null;
+        TestPayload payload = new TestPayload(pending.getTestCaseId(), pending.getTestName(), status, duration,
+            pending.getStartTime(), errorMessage, stackTrace);
+        payload.setEndTime(java.time.Instant.now().toString());
+
+        String registeredId = submit(new ReportEvent(ReportEvent.Type.TEST, currentSuiteId, null, null, payload));
+        if (registeredId == null) {
+            System.err.println("⚠️ Could not register test " + pending.getTestCaseId() + ". Its steps were not sent.");
+            return;
+        }
+        registeredIds.put(testId, registeredId);
+
+        for (ReportEvent step : pending.getSteps()) {
+            step.setTestId(registeredId);
+            submit(step);
         }
     }
 
+    private static String resolveTestId(String testId) {
+        return testId != null ? registeredIds.getOrDefault(testId, testId) : null;
+    }
+
     public static void setCurrentTestId(String testId) {
-        currentTestId = testId;
-        currentStepNumber = 0;
+        setCurrentContext(testId != null ? new ReportingContext(testId) : null);
     }
 
     public static void updateTestResult(String testId, String status, long duration,
@@ -157,133 +419,381 @@ public class PramanaReporter {
             return;
         }
 
-        try (CloseableHttpClient client = HttpClients.createDefault()) {
-            HttpPut request = new HttpPut(
-                BASE_URL + "/api/v1/tests/" + testId
-            );
-            request.setHeader("Content-Type", "application/json");
-
-            Map<String, Object> body = new HashMap<>();
-            body.put("status", status);
-            body.put("duration", duration);
+        TestPayload payload = new TestPayload(null, null, status, duration, null, errorMessage, stackTrace);
 
-            if (errorMessage != null) {
-                body.put("errorMessage", errorMessage);
-            }
-            if (stackTrace != null) {
-                body.put("stackTrace", stackTrace);
-            }
-
-            request.setEntity(new StringEntity(mapper.writeValueAsString(body)));
-
-            client.execute(request, r -> {
-                System.out.println("✅ Test updated: " + testId + " [" + status + "]");
-                return null;
-            });
-
-        } catch (Exception e) {
-            System.err.println("❌ Failed to update test: " + e.getMessage());
-        }
+        submit(new ReportEvent(ReportEvent.Type.TEST_UPDATE, currentSuiteId, resolveTestId(testId), null, payload));
     }
 
     public static String logStep(String description, String status, long duration) {
-        if (currentTestId == null) {
+        ReportingContext context = currentContext.get();
+        if (context == null) {
             System.err.println("⚠️ No active test. Cannot log step.");
             return null;
         }
-        currentStepNumber++;
-        return logTestStep(currentTestId, currentStepNumber, description, status, duration, null);
+        return logTestStep(context.getTestId(), context.nextStepNumber(), description, status, duration, null);
     }
 
     public static String logStep(String description, String status, long duration, String errorMessage) {
-        if (currentTestId == null) {
+        ReportingContext context = currentContext.get();
+        if (context == null) {
             System.err.println("⚠️ No active test. Cannot log step.");
             return null;
         }
-        currentStepNumber++;
-        return logTestStep(currentTestId, currentStepNumber, description, status, duration, errorMessage);
+        return logTestStep(context.getTestId(), context.nextStepNumber(), description, status, duration, errorMessage);
     }
 
     public static void completeSuite() {
         if (currentSuiteId == null) return;
 
-        try (CloseableHttpClient client = HttpClients.createDefault()) {
-            HttpPut request = new HttpPut(
-                BASE_URL + "/api/v1/suites/" + currentSuiteId + "/complete"
-            );
+        submit(new ReportEvent(ReportEvent.Type.SUITE_COMPLETE, currentSuiteId, null, null, null));
+    }
 
-            client.execute(request, r -> {
-                System.out.println("✅ Suite marked as complete");
-                return null;
-            });
+    // try (Step step = PramanaReporter.step("...")) { ... } - steps opened inside are logged as its children.
+    // The block must call step.fail() itself when it throws; the lambda forms below do that
+    public static Step step(String description) {
+        ReportingContext context = currentContext.get();
+        if (context == null) {
+            System.err.println("⚠️ No active test. Cannot log step.");
+        }
+        return new Step(context, description);
+    }
 
-        } catch (Exception e) {
-            System.err.println("❌ Failed to complete suite: " + e.getMessage());
+    // Runs the action as a step, logging it as failed with the exception message if it throws
+    public static <E extends Exception> void step(String description, Step.Action<E> action) throws E {
+        Step step = step(description);
+        try {
+            action.run();
+        } catch (Throwable t) {
+            step.fail(t);
+            throw t;
+        } finally {
+            step.close();
+        }
+    }
+
+    public static <T, E extends Exception> T step(String description, Step.Function<T, E> action) throws E {
+        Step step = step(description);
+        try {
+            return action.get();
+        } catch (Throwable t) {
+            step.fail(t);
+            throw t;
+        } finally {
+            step.close();
         }
     }
 
+    static void logTimedStep(ReportingContext context, Step step, long durationNanos) {
+        StepPayload payload = new StepPayload(context.getTestId(), step.getStepNumber(), step.getDescription(),
+            step.getStatus(), durationNanos / 1_000_000, step.getErrorMessage());
+        payload.setDurationNanos(durationNanos);
+        payload.setLevel(step.getLevel());
+        payload.setParentStepNumber(step.getParentStepNumber());
+        submitStep(payload);
+    }
+
     public static String logTestStep(String testId, int stepNumber, String description,
                                       String status, long duration, String errorMessage) {
-        try (CloseableHttpClient client = HttpClients.createDefault()) {
-            HttpPost request = new HttpPost(BASE_URL + "/api/v1/steps");
-            request.setHeader("Content-Type", "application/json");
-
-            Map<String, Object> body = new HashMap<>();
-            body.put("testId", testId);
-            body.put("stepNumber", stepNumber);
-            body.put("description", description);
-            body.put("status", status);
-            body.put("duration", duration);
-            if (errorMessage != null) {
-                body.put("errorMessage", errorMessage);
-            }
+        return submitStep(new StepPayload(testId, stepNumber, description, status, duration, errorMessage));
+    }
+
+    private static String submitStep(StepPayload payload) {
+        ProgressStream stream = progress();
+        if (stream != null) {
+            stream.step(payload.getTestId(), payload.getDescription(), payload.getStatus(), payload.getDuration());
+        }
+        ReportEvent event = new ReportEvent(ReportEvent.Type.STEP, currentSuiteId,
+            resolveTestId(payload.getTestId()), null, payload);
+        PendingTestRun pending = event.getTestId() != null ? pendingTests.get(event.getTestId()) : null;
+        if (pending != null) {
+            pending.addStep(event);
+            return null;
+        }
+        return submit(event);
+    }
 
-            request.setEntity(new StringEntity(mapper.writeValueAsString(body)));
+    // Raw image bytes are streamed to the server instead of being held as a Base64 string
+    public static void attachScreenshot(String testId, String stepId, String name,
+                                        byte[] content, String description) {
+        byte[] encoded = ScreenshotEncoder.encode(content);
+        attach(testId, stepId, ScreenshotEncoder.fileName(name), encoded, description);
+    }
 
-            String response = client.execute(request, r -> {
-                return new String(r.getEntity().getContent().readAllBytes());
-            });
+    public static void attachScreenshot(String testId, String stepId, String name,
+                                        String base64Content, String description) {
+        attach(testId, stepId, "screenshot", name, Base64.getDecoder().decode(base64Content), description);
+    }
 
-            Map<String, Object> result = mapper.readValue(response, Map.class);
-            String stepId = (String) result.get("id");
-            System.out.println("✅ Test step logged: " + description + " [" + status + "]");
-            return stepId;
+    public static void attachText(String testId, String name, String content, String description) {
+        // "log" is the documented attachment type for text files
+        attach(testId, null, "log", name, content.getBytes(StandardCharsets.UTF_8), description);
+    }
+
+    private static void attach(String testId, String stepId, String name, byte[] content, String description) {
+        attach(testId, stepId, "screenshot", name, content, description);
+    }
+
+    private static void attach(String testId, String stepId, String type, String name,
+                               byte[] content, String description) {
+        AttachmentPayload payload = new AttachmentPayload(type, name, content,
+            java.time.Instant.now().toString(), description);
+
+        submit(new ReportEvent(ReportEvent.Type.ATTACHMENT, currentSuiteId, resolveTestId(testId), stepId, payload));
+    }
 
+    // In spool or async mode a local ID is returned; the shipper or sender swaps it for the server ID
+    private static String submit(ReportEvent event) {
+        ReportSpool currentSpool = spool();
+        if (currentSpool != null) {
+            currentSpool.append(event);
+            return event.getLocalId();
+        }
+        AsyncReportQueue queue = asyncQueue();
+        if (queue == null) {
+            return batcher().send(event);
+        }
+        queue.submit(event);
+        return event.getLocalId();
+    }
+
+    static String dispatch(ReportEvent event) {
+        try {
+            return deliver(event);
         } catch (Exception e) {
-            System.err.println("❌ Failed to log test step: " + e.getMessage());
+            System.err.println("❌ Failed to " + describe(event) + ": " + e.getMessage());
             return null;
         }
     }
 
-    public static void attachScreenshot(String testId, String stepId, String name,
-                                        String base64Content, String description) {
-        try (CloseableHttpClient client = HttpClients.createDefault()) {
-            HttpPost request = new HttpPost(
-                BASE_URL + "/api/v1/tests/" + testId + "/attachments"
-            );
-            request.setHeader("Content-Type", "application/json");
-
-            Map<String, Object> body = new HashMap<>();
-            body.put("type", "screenshot");
-            body.put("name", name);
-            body.put("content", base64Content);
-            body.put("timestamp", java.time.Instant.now().toString());
-            if (stepId != null) {
-                body.put("stepId", stepId);
+    private static String describe(ReportEvent event) {
+        switch (event.getType()) {
+            case SUITE:
+                return "create suite";
+            case TEST:
+                return "log test";
+            case TEST_UPDATE:
+                return "update test";
+            case STEP:
+                return "log test step";
+            case ATTACHMENT: {
+                AttachmentPayload payload = (AttachmentPayload) event.getPayload();
+                return "attach " + payload.getType() + " " + payload.getName();
+            }
+            default:
+                return "complete suite";
+        }
+    }
+
+    // Sends one event and returns the ID the server gave it; failures are thrown so callers can retry
+    static String deliver(ReportEvent event) throws IOException {
+        switch (event.getType()) {
+            case SUITE: {
+                String id = execute(post(BASE_URL + "/api/v1/suites", event),
+                    new JsonEntity(SUITE_WRITER, event.getPayload()), PramanaReporter::readId);
+                System.out.println("✅ Pramana Suite Created: " + id);
+                return id;
             }
-            if (description != null) {
-                body.put("description", description);
+            case TEST: {
+                TestPayload payload = (TestPayload) event.getPayload();
+                String id = execute(post(BASE_URL + "/api/v1/suites/" + event.getSuiteId() + "/tests", event),
+                    new JsonEntity(TEST_WRITER, payload), PramanaReporter::readId);
+                System.out.println("✅ Test logged: " + payload.getTestName() + " [" + payload.getStatus() + "]");
+                return id;
             }
+            case TEST_UPDATE: {
+                TestPayload payload = (TestPayload) event.getPayload();
+                execute(new HttpPut(BASE_URL + "/api/v1/tests/" + event.getTestId()),
+                    new JsonEntity(TEST_WRITER, payload), null);
+                System.out.println("✅ Test updated: " + event.getTestId() + " [" + payload.getStatus() + "]");
+                return null;
+            }
+            case STEP: {
+                StepPayload payload = (StepPayload) event.getPayload();
+                // The test ID may have been resolved from a local ID after the event was queued
+                payload.setTestId(event.getTestId());
+                String id = execute(post(BASE_URL + "/api/v1/steps", event),
+                    new JsonEntity(STEP_WRITER, payload), PramanaReporter::readId);
+                System.out.println("✅ Test step logged: " + payload.getDescription() + " [" + payload.getStatus() + "]");
+                return id;
+            }
+            case ATTACHMENT: {
+                AttachmentPayload payload = (AttachmentPayload) event.getPayload();
+                payload.setStepId(event.getStepId());
+                execute(post(BASE_URL + "/api/v1/tests/" + event.getTestId() + "/attachments", event),
+                    new StreamingAttachmentEntity(ATTACHMENT_WRITER.writeValueAsBytes(payload.metadata()),
+                        payload.getContent()), null);
+                System.out.println("✅ Attached " + payload.getType() + ": " + payload.getName());
+                return null;
+            }
+            case SUITE_COMPLETE:
+                execute(new HttpPut(BASE_URL + "/api/v1/suites/" + event.getSuiteId() + "/complete"), null, null);
+                System.out.println("✅ Suite marked as complete");
+                return null;
+            default:
+                return null;
+        }
+    }
 
-            request.setEntity(new StringEntity(mapper.writeValueAsString(body)));
+    // Throws instead of logging so the batcher can send the events one by one rather than lose them
+    static List<String> dispatchBatch(ReportEvent.Type type, List<ReportEvent> events)
+            throws IOException, BatchUnsupportedException {
+        try {
+            HttpUriRequestBase request;
+            HttpEntity entity;
+
+            if (type == ReportEvent.Type.STEP) {
+                List<StepPayload> payloads = new ArrayList<>(events.size());
+                for (ReportEvent event : events) {
+                    StepPayload payload = (StepPayload) event.getPayload();
+                    payload.setTestId(event.getTestId());
+                    payloads.add(payload);
+                }
+                request = new HttpPost(BASE_URL + "/api/v1/steps/batch");
+                entity = new JsonEntity(STEP_LIST_WRITER, payloads);
+            } else {
+                List<TestPayload> payloads = new ArrayList<>(events.size());
+                for (ReportEvent event : events) {
+                    TestPayload payload = (TestPayload) event.getPayload();
+                    payload.setId(event.getTestId());
+                    payloads.add(payload);
+                }
+                request = new HttpPut(BASE_URL + "/api/v1/tests/batch");
+                entity = new JsonEntity(TEST_LIST_WRITER, payloads);
+            }
+
+            List<String> ids = execute(request, entity, PramanaReporter::readIds);
+            System.out.println("✅ Batch logged: " + events.size() + " " + type.name().toLowerCase() + " events");
+            return ids != null ? ids : new ArrayList<>();
+
+        } catch (ReportDeliveryException e) {
+            int code = e.getStatusCode();
+            if (code == 404 || code == 405 || code == 501) {
+                throw new BatchUnsupportedException(code);
+            }
+            throw e;
+        }
+    }
+
+    // A spooled or queued event keeps its local ID across retries and replays, so it serves as the Idempotency-Key
+    // for a server that honours one; events sent directly have no local ID and send no key
+    private static HttpPost post(String url, ReportEvent event) {
+        HttpPost post = new HttpPost(url);
+        if (event.getLocalId() != null) {
+            post.setHeader("Idempotency-Key", event.getLocalId());
+        }
+        return post;
+    }
+
+    private interface ResponseReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    // Successful responses are parsed straight from the socket; the body is only read as text for errors
+    private static <T> T execute(HttpUriRequestBase request, HttpEntity entity, ResponseReader<T> reader)
+            throws IOException {
+        long bytes = 0;
+        if (entity != null) {
+            bytes = entity.getContentLength();
+            request.setEntity(GZIP_ENABLED && bytes >= GZIP_MIN_BYTES
+                ? new GzipCompressingEntity(entity)
+                : entity);
+        }
 
-            client.execute(request, r -> {
-                System.out.println("✅ Screenshot attached: " + name);
+        CircuitBreaker currentBreaker = breaker;
+        int attempts = entity == null || entity.isRepeatable() ? RETRY_MAX_ATTEMPTS : 1;
+        for (int attempt = 1; ; attempt++) {
+            if (!currentBreaker.allowRequest()) {
+                ReporterMetrics.shortCircuited();
+                throw ReportDeliveryException.notSent("Pramana server unavailable, call skipped while the circuit is open");
+            }
+            long start = ReporterMetrics.started();
+            boolean failed = true;
+            // Set only by a response; any other outcome, a RuntimeException included, counts against the breaker
+            // so a half-open trial always settles
+            boolean reachable = false;
+            try {
+                T result = send(request, reader);
+                failed = false;
+                reachable = true;
+                return result;
+            } catch (IOException e) {
+                // A 4xx answer is final and still proves the server is up
+                reachable = !ReportDeliveryException.isRetryable(e);
+                if (reachable || attempt >= attempts || !ReportDeliveryException.isRetryable(e, request.getMethod())) {
+                    throw e;
+                }
+            } finally {
+                if (reachable) {
+                    currentBreaker.onSuccess();
+                } else {
+                    currentBreaker.onFailure();
+                }
+                ReporterMetrics.finished(request.getMethod(), request.getPath(), start, bytes, failed);
+            }
+            ReporterMetrics.retried();
+            try {
+                Thread.sleep(backoff(attempt));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw ReportDeliveryException.notSent("Interrupted while waiting to retry");
+            }
+        }
+    }
+
+    // Equal jitter: half the exponential delay is fixed, the other half random, so parallel threads spread out
+    static long backoff(int attempt) {
+        long delay = Math.min(RETRY_MAX_BACKOFF_MS, RETRY_BACKOFF_MS << Math.min(attempt - 1, 20));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private static <T> T send(HttpUriRequestBase request, ResponseReader<T> reader) throws IOException {
+        return PramanaHttpClient.get().execute(request, r -> {
+            HttpEntity body = r.getEntity();
+            if (r.getCode() >= 400) {
+                throw new ReportDeliveryException(r.getCode(),
+                    body != null ? EntityUtils.toString(body, StandardCharsets.UTF_8) : null);
+            }
+            if (body == null || reader == null) {
                 return null;
-            });
+            }
+            try (InputStream in = body.getContent(); JsonParser parser = mapper.getFactory().createParser(in)) {
+                return reader.read(parser);
+            }
+        });
+    }
 
-        } catch (Exception e) {
-            System.err.println("❌ Failed to attach screenshot: " + e.getMessage());
+    // {"id": "...", ...} - stops reading as soon as the ID is found
+    private static String readId(JsonParser parser) throws IOException {
+        return parser.nextToken() == JsonToken.START_OBJECT ? readIdField(parser, false) : null;
+    }
+
+    // [{"id": "..."}, ...]
+    private static List<String> readIds(JsonParser parser) throws IOException {
+        List<String> ids = new ArrayList<>();
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            return ids;
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            ids.add(readIdField(parser, true));
+        }
+        return ids;
+    }
+
+    // Positioned on START_OBJECT; with readToEnd the parser is left on the object's END_OBJECT
+    private static String readIdField(JsonParser parser, boolean readToEnd) throws IOException {
+        String id = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            boolean isId = "id".equals(parser.getCurrentName());
+            JsonToken value = parser.nextToken();
+            if (isId && value.isScalarValue() && value != JsonToken.VALUE_NULL) {
+                id = parser.getText();
+                if (!readToEnd) {
+                    return id;
+                }
+            } else {
+                parser.skipChildren();
+            }
         }
+        return id;
     }
-}
\ No newline at end of file
+}
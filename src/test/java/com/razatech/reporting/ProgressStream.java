@@ -0,0 +1,253 @@
+package com.razatech.reporting;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Live suite progress over one WebSocket: each frame carries one or more newline-separated JSON events
+// (start, step, finish, heartbeat, end) with done/total/ETA counters, so dashboards need no REST call per event
+public class ProgressStream {
+
+    private static final JsonFactory json = new JsonFactory();
+
+    private final URI uri;
+    private final long heartbeatMs;
+    private final long reconnectMs;
+    private final long connectTimeoutMs;
+    private final String shardId;
+    private final BlockingQueue<String> queue;
+    private final Thread sender;
+    private final long startMillis = System.currentTimeMillis();
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger done = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private WebSocket socket;
+    private long nextConnectAttempt;
+    private boolean warned;
+    private volatile boolean running = true;
+
+    public ProgressStream(URI uri, long heartbeatMs, int capacity, long reconnectMs, long connectTimeoutMs,
+                          String shardId) {
+        this.uri = uri;
+        this.heartbeatMs = heartbeatMs;
+        this.reconnectMs = reconnectMs;
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.shardId = shardId;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.sender = new Thread(this::drain, "pramana-progress-stream");
+        this.sender.setDaemon(true);
+        this.sender.start();
+    }
+
+    // progress.stream.url with {suiteId} replaced; the Pramana API has no stream endpoint, so there is no default
+    public static URI streamUri(String configuredUrl, String suiteId) {
+        return URI.create(configuredUrl.replace("{suiteId}", suiteId));
+    }
+
+    // Tests expected in this run; grows if more tests start than were announced
+    public void expect(int tests) {
+        total.set(tests);
+    }
+
+    public void testStarted(String testId, String testCaseId, String testName) {
+        emit("start", testId, testCaseId, testName, null, -1);
+    }
+
+    public void step(String testId, String description, String status, long durationMs) {
+        emit("step", testId, null, description, status, durationMs);
+    }
+
+    public void testFinished(String testId, String status, long durationMs) {
+        if ("running".equals(status)) {
+            return;
+        }
+        done.incrementAndGet();
+        if ("failed".equals(status)) {
+            failed.incrementAndGet();
+        } else if ("skipped".equals(status)) {
+            skipped.incrementAndGet();
+        }
+        emit("finish", testId, null, null, status, durationMs);
+    }
+
+    // Drop-oldest on overflow: the next event or heartbeat carries the counters again
+    private void emit(String type, String testId, String testCaseId, String name, String status, long durationMs) {
+        String event = event(type, testId, testCaseId, name, status, durationMs);
+        while (!queue.offer(event)) {
+            if (queue.poll() != null) {
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    // Remaining tests take as long as the finished ones did on average, in wall-clock time so parallelism counts
+    long etaMillis() {
+        int finished = done.get();
+        int remaining = Math.max(0, total.get() - finished);
+        if (finished == 0) {
+            return -1;
+        }
+        return (System.currentTimeMillis() - startMillis) * remaining / finished;
+    }
+
+    private String event(String type, String testId, String testCaseId, String name, String status, long durationMs) {
+        total.accumulateAndGet(done.get(), Math::max);
+        StringWriter out = new StringWriter(128);
+        try (JsonGenerator generator = json.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("type", type);
+            generator.writeNumberField("ts", System.currentTimeMillis());
+            if (shardId != null) {
+                generator.writeStringField("shard", shardId);
+            }
+            if (testId != null) {
+                generator.writeStringField("testId", testId);
+            }
+            if (testCaseId != null) {
+                generator.writeStringField("testCaseId", testCaseId);
+            }
+            if (name != null) {
+                generator.writeStringField("name", name);
+            }
+            if (status != null) {
+                generator.writeStringField("status", status);
+            }
+            if (durationMs >= 0) {
+                generator.writeNumberField("durationMs", durationMs);
+            }
+            generator.writeNumberField("done", done.get());
+            generator.writeNumberField("total", total.get());
+            generator.writeNumberField("failed", failed.get());
+            generator.writeNumberField("skipped", skipped.get());
+            generator.writeNumberField("etaMs", etaMillis());
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toString();
+    }
+
+    // Everything queued while a frame was in flight goes out together in the next one
+    private void drain() {
+        List<String> batch = new ArrayList<>();
+        long lastSent = System.currentTimeMillis();
+        while (running || !queue.isEmpty()) {
+            try {
+                String event = queue.poll(Math.min(heartbeatMs, 100), TimeUnit.MILLISECONDS);
+                if (event != null) {
+                    batch.add(event);
+                    queue.drainTo(batch);
+                } else if (running && System.currentTimeMillis() - lastSent >= heartbeatMs) {
+                    batch.add(event("heartbeat", null, null, null, null, -1));
+                } else {
+                    continue;
+                }
+                send(String.join("\n", batch), batch.size());
+                batch.clear();
+                lastSent = System.currentTimeMillis();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.err.println("❌ Pramana progress stream error: " + e.getMessage());
+            }
+        }
+    }
+
+    private void send(String frame, int events) {
+        WebSocket current = connect();
+        if (current == null) {
+            dropped.addAndGet(events);
+            return;
+        }
+        try {
+            current.sendText(frame, true).get(connectTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            dropped.addAndGet(events);
+            System.err.println("⚠️ Pramana progress stream lost, reconnecting: " + e.getMessage());
+            socket.abort();
+            socket = null;
+        }
+    }
+
+    // While the server is unreachable events are dropped and a new connection is tried every reconnectMs
+    private WebSocket connect() {
+        if (socket != null && !socket.isOutputClosed()) {
+            return socket;
+        }
+        socket = null;
+        if (System.currentTimeMillis() < nextConnectAttempt) {
+            return null;
+        }
+        try {
+            socket = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build()
+                .newWebSocketBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .buildAsync(uri, new WebSocket.Listener() {
+                    @Override
+                    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+                        // The server has nothing to say; keep reading so its pings and close frames get through
+                        webSocket.request(1);
+                        return null;
+                    }
+                })
+                .get(connectTimeoutMs, TimeUnit.MILLISECONDS);
+            if (!warned) {
+                System.out.println("ℹ️ Pramana progress streamed to " + uri);
+            }
+            warned = false;
+            return socket;
+        } catch (Exception e) {
+            nextConnectAttempt = System.currentTimeMillis() + reconnectMs;
+            if (!warned) {
+                System.err.println("⚠️ Pramana progress stream unavailable at " + uri + ": " + e.getMessage());
+                warned = true;
+            }
+            return null;
+        }
+    }
+
+    // Sends the final counters as an "end" event and closes the connection
+    public void close(long timeoutMs) {
+        emit("end", null, null, null, null, System.currentTimeMillis() - startMillis);
+        running = false;
+        try {
+            sender.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (socket != null) {
+            try {
+                socket.sendClose(WebSocket.NORMAL_CLOSURE, "suite finished").get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                socket.abort();
+            }
+        }
+        if (dropped.get() > 0) {
+            System.err.println("⚠️ Pramana progress stream dropped " + dropped.get() + " events");
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+}
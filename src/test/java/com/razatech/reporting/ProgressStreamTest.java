@@ -0,0 +1,77 @@
+package com.razatech.reporting;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ProgressStreamTest {
+
+    @Test(description = "Test events flow over one WebSocket with done/total counters and idle heartbeats")
+    public void streamsEventsWithProgressCounters() throws Exception {
+        StubStreamServer server = new StubStreamServer().start();
+        try {
+            ProgressStream stream = new ProgressStream(
+                ProgressStream.streamUri(server.getBaseUrl().replaceFirst("^http", "ws") + "/progress/{suiteId}",
+                    "suite_live"), 50, 100, 1000, 2000, null);
+            stream.expect(2);
+            stream.testStarted("test_1", "first", "First test");
+            stream.step("test_1", "open page", "passed", 12);
+            stream.testFinished("test_1", "passed", 40);
+            stream.testStarted("test_2", "second", "Second test");
+            stream.testFinished("test_2", "failed", 20);
+            awaitEvent(server, "heartbeat");
+            stream.close(2000);
+            awaitEvent(server, "end");
+
+            Assert.assertEquals(server.getPaths(), List.of("/progress/suite_live"));
+            List<JsonNode> events = server.getEvents();
+            List<String> types = events.stream()
+                .map(event -> event.get("type").asText())
+                .filter(type -> !"heartbeat".equals(type))
+                .collect(Collectors.toList());
+            Assert.assertEquals(types, List.of("start", "step", "finish", "start", "finish", "end"));
+            Assert.assertTrue(events.stream().anyMatch(event -> "heartbeat".equals(event.get("type").asText())),
+                "An idle stream should send heartbeats");
+
+            JsonNode end = events.get(events.size() - 1);
+            Assert.assertEquals(end.get("done").asInt(), 2);
+            Assert.assertEquals(end.get("total").asInt(), 2);
+            Assert.assertEquals(end.get("failed").asInt(), 1);
+            Assert.assertEquals(end.get("etaMs").asLong(), 0);
+            Assert.assertEquals(events.get(0).get("name").asText(), "First test");
+            Assert.assertEquals(stream.getDropped(), 0);
+            Assert.assertTrue(server.isClosedByClient(), "The stream should be closed cleanly");
+        } finally {
+            server.stop();
+        }
+    }
+
+    // The stub reads frames on its own thread, so events arrive a little after they are sent
+    private static void awaitEvent(StubStreamServer server, String type) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (System.currentTimeMillis() < deadline
+                && server.getEvents().stream().noneMatch(event -> type.equals(event.get("type").asText()))) {
+            Thread.sleep(20);
+        }
+    }
+
+    @Test(description = "Without a server the stream drops events instead of slowing the tests down")
+    public void unreachableServerDoesNotBlockTests() {
+        ProgressStream stream = new ProgressStream(URI.create("ws://localhost:1/stream"), 50, 10, 60000, 500, "1");
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            stream.testStarted("test_" + i, "case_" + i, "Test " + i);
+            stream.testFinished("test_" + i, "passed", 1);
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        stream.close(2000);
+
+        Assert.assertTrue(elapsedMs < 500, "Emitting must not wait on the network, took " + elapsedMs + " ms");
+        Assert.assertTrue(stream.getDropped() > 0);
+        Assert.assertEquals(stream.etaMillis(), 0);
+    }
+}
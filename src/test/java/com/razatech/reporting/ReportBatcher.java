@@ -0,0 +1,155 @@
+package com.razatech.reporting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+public class ReportBatcher {
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final long maxAgeMs;
+    private final boolean flushOnTestEnd;
+    private final List<ReportEvent> steps = new ArrayList<>();
+    private final List<ReportEvent> updates = new ArrayList<>();
+    private final ScheduledExecutorService ageFlusher;
+
+    // Held for the whole of a flush so batches reach the server in the order they left the buffers; the buffers
+    // themselves are guarded by this, which is never held during I/O
+    private final Object flushLock = new Object();
+
+    private volatile BiConsumer<ReportEvent, String> onSent = (event, serverId) -> { };
+    private volatile boolean batchSupported = true;
+    private long oldestEventAt = 0;
+    // Read without the lock by the metrics
+    private volatile int buffered = 0;
+
+    public ReportBatcher(boolean enabled, int maxSize, long maxAgeMs, boolean flushOnTestEnd) {
+        this.enabled = enabled;
+        this.maxSize = Math.max(1, maxSize);
+        this.maxAgeMs = maxAgeMs;
+        this.flushOnTestEnd = flushOnTestEnd;
+
+        if (enabled && maxAgeMs > 0) {
+            ageFlusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "pramana-batch-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(10, maxAgeMs / 2);
+            ageFlusher.scheduleAtFixedRate(this::flushIfStale, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            ageFlusher = null;
+        }
+    }
+
+    // Called with each event and the server ID it was given, once it has actually been sent
+    public void setOnSent(BiConsumer<ReportEvent, String> onSent) {
+        this.onSent = onSent;
+    }
+
+    // Steps and final results are buffered; anything else flushes the buffer first so order is kept.
+    // Unbuffered calls take no lock, so test threads report in parallel
+    public String send(ReportEvent event) {
+        if (!enabled || !batchSupported) {
+            return sendSingle(event);
+        }
+
+        ReportEvent.Type type = event.getType();
+        if (type != ReportEvent.Type.STEP && type != ReportEvent.Type.TEST_UPDATE) {
+            flush();
+            return sendSingle(event);
+        }
+
+        boolean full;
+        synchronized (this) {
+            buffer(type == ReportEvent.Type.STEP ? steps : updates, event);
+            full = steps.size() + updates.size() >= maxSize;
+        }
+        if (full || (type == ReportEvent.Type.TEST_UPDATE && flushOnTestEnd)) {
+            flush();
+        }
+        return null;
+    }
+
+    private void buffer(List<ReportEvent> batch, ReportEvent event) {
+        if (steps.isEmpty() && updates.isEmpty()) {
+            oldestEventAt = System.currentTimeMillis();
+        }
+        batch.add(event);
+        buffered = steps.size() + updates.size();
+    }
+
+    private void flushIfStale() {
+        boolean stale;
+        synchronized (this) {
+            stale = (!steps.isEmpty() || !updates.isEmpty()) && System.currentTimeMillis() - oldestEventAt >= maxAgeMs;
+        }
+        if (stale) {
+            flush();
+        }
+    }
+
+    public void flush() {
+        synchronized (flushLock) {
+            List<ReportEvent> stepBatch;
+            List<ReportEvent> updateBatch;
+            synchronized (this) {
+                stepBatch = new ArrayList<>(steps);
+                updateBatch = new ArrayList<>(updates);
+                steps.clear();
+                updates.clear();
+                buffered = 0;
+            }
+            // Steps go before results so a test is never closed ahead of its own steps
+            sendBatch(ReportEvent.Type.STEP, stepBatch);
+            sendBatch(ReportEvent.Type.TEST_UPDATE, updateBatch);
+        }
+    }
+
+    private void sendBatch(ReportEvent.Type type, List<ReportEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        if (events.size() > 1 && batchSupported) {
+            try {
+                List<String> ids = PramanaReporter.dispatchBatch(type, events);
+                for (int i = 0; i < events.size(); i++) {
+                    onSent.accept(events.get(i), i < ids.size() ? ids.get(i) : null);
+                }
+                return;
+            } catch (BatchUnsupportedException e) {
+                batchSupported = false;
+                System.out.println("ℹ️ Pramana server has no batch endpoint, falling back to single calls");
+            } catch (Exception e) {
+                System.err.println("⚠️ Failed to log batch of " + events.size() + " " + type.name().toLowerCase()
+                    + " events, sending them one by one: " + e.getMessage());
+            }
+        }
+
+        for (ReportEvent event : events) {
+            sendSingle(event);
+        }
+    }
+
+    private String sendSingle(ReportEvent event) {
+        String serverId = PramanaReporter.dispatch(event);
+        onSent.accept(event, serverId);
+        return serverId;
+    }
+
+    public int getBuffered() {
+        return buffered;
+    }
+
+    public void close() {
+        if (ageFlusher != null) {
+            ageFlusher.shutdownNow();
+        }
+        flush();
+    }
+}
@@ -0,0 +1,59 @@
+package com.razatech.reporting;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ReportBatcherTest {
+
+    private StubPramanaServer server;
+    private String originalBaseUrl;
+    private String originalSuiteId;
+
+    @BeforeClass
+    public void startStub() throws Exception {
+        server = new StubPramanaServer(true).start();
+        originalBaseUrl = PramanaReporter.getBaseUrl();
+        originalSuiteId = PramanaReporter.getCurrentSuiteId();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        PramanaReporter.configure(originalBaseUrl, originalSuiteId);
+        server.stop();
+    }
+
+    @Test(description = "A batch the server fails on is sent one event at a time instead of being dropped")
+    public void failedBatchFallsBackToSingleCalls() {
+        PramanaReporter.configure(server.getBaseUrl(), "suite_batch");
+        ReportBatcher batcher = new ReportBatcher(true, 10, 0, false);
+        Map<String, String> sent = new ConcurrentHashMap<>();
+        batcher.setOnSent((event, serverId) ->
+            sent.put(((StepPayload) event.getPayload()).getDescription(), String.valueOf(serverId)));
+
+        for (int i = 1; i <= 3; i++) {
+            Assert.assertNull(batcher.send(new ReportEvent(ReportEvent.Type.STEP, "suite_batch", "test_b", null,
+                new StepPayload("test_b", i, "step " + i, "passed", 0, null))));
+        }
+        Assert.assertEquals(batcher.getBuffered(), 3);
+
+        int acceptedBefore = server.getRequests().size();
+        server.failNext(1, 500);
+        batcher.close();
+
+        List<StubPramanaServer.RecordedRequest> requests = server.getRequests();
+        requests = requests.subList(acceptedBefore, requests.size());
+        Assert.assertEquals(requests.size(), 3);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(requests.get(i).path, "/api/v1/steps");
+            Assert.assertEquals(requests.get(i).body.get("stepNumber").asInt(), i + 1);
+            Assert.assertTrue(sent.get("step " + (i + 1)).startsWith("step_"), sent.toString());
+        }
+        Assert.assertEquals(batcher.getBuffered(), 0);
+    }
+}
@@ -0,0 +1,57 @@
+package com.razatech.reporting;
+
+import org.apache.hc.client5.http.ConnectTimeoutException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+
+// A report the server did not accept; statusCode is 0 when no response arrived at all
+public class ReportDeliveryException extends IOException {
+
+    private final int statusCode;
+    private final boolean sent;
+
+    public ReportDeliveryException(int statusCode, String message) {
+        this(statusCode, message, true);
+    }
+
+    private ReportDeliveryException(int statusCode, String message, boolean sent) {
+        super(statusCode > 0 ? "HTTP " + statusCode + (message != null ? ": " + message : "") : message);
+        this.statusCode = statusCode;
+        this.sent = sent;
+    }
+
+    // The call was given up before the request left this JVM, e.g. while the circuit was open
+    public static ReportDeliveryException notSent(String message) {
+        return new ReportDeliveryException(0, message, false);
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    // Server errors, throttling and timeouts may succeed later; other 4xx answers will not
+    public boolean isRetryable() {
+        return statusCode == 0 || statusCode >= 500 || statusCode == 408 || statusCode == 429;
+    }
+
+    public static boolean isRetryable(IOException e) {
+        return !(e instanceof ReportDeliveryException) || ((ReportDeliveryException) e).isRetryable();
+    }
+
+    // The server documents no idempotency keys and records a second POST of a test as a rerun, so a POST is only
+    // retried when it cannot have reached the server
+    public static boolean isRetryable(IOException e, String method) {
+        return isRetryable(e) && (!"POST".equals(method) || neverSent(e));
+    }
+
+    public static boolean neverSent(IOException e) {
+        if (e instanceof ReportDeliveryException) {
+            return !((ReportDeliveryException) e).sent;
+        }
+        return e instanceof ConnectException || e instanceof ConnectTimeoutException
+            || e instanceof NoRouteToHostException || e instanceof UnknownHostException;
+    }
+}
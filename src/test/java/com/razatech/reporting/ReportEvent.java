@@ -0,0 +1,95 @@
+package com.razatech.reporting;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+public class ReportEvent {
+
+    public enum Type {
+        SUITE, TEST, TEST_UPDATE, STEP, ATTACHMENT, SUITE_COMPLETE
+    }
+
+    private Type type;
+    private String suiteId;
+    private String testId;
+    private String stepId;
+    private String localId;
+    // The type name only appears when the whole event is written, e.g. to the spool, never in the request body
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.WRAPPER_OBJECT)
+    @JsonSubTypes({
+        @JsonSubTypes.Type(value = SuitePayload.class, name = "suite"),
+        @JsonSubTypes.Type(value = TestPayload.class, name = "test"),
+        @JsonSubTypes.Type(value = StepPayload.class, name = "step"),
+        @JsonSubTypes.Type(value = AttachmentPayload.class, name = "attachment")
+    })
+    private Object payload;
+
+    public ReportEvent() {
+    }
+
+    public ReportEvent(Type type, String suiteId, String testId, String stepId, Object payload) {
+        this.type = type;
+        this.suiteId = suiteId;
+        this.testId = testId;
+        this.stepId = stepId;
+        this.payload = payload;
+    }
+
+    // Suites, tests and steps get a server-side ID that later events refer to
+    public boolean createsResource() {
+        return type == Type.SUITE || type == Type.TEST || type == Type.STEP;
+    }
+
+    // The HTTP method PramanaReporter.deliver uses for this event
+    public String httpMethod() {
+        return createsResource() || type == Type.ATTACHMENT ? "POST" : "PUT";
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getSuiteId() {
+        return suiteId;
+    }
+
+    public void setSuiteId(String suiteId) {
+        this.suiteId = suiteId;
+    }
+
+    public String getTestId() {
+        return testId;
+    }
+
+    public void setTestId(String testId) {
+        this.testId = testId;
+    }
+
+    public String getStepId() {
+        return stepId;
+    }
+
+    public void setStepId(String stepId) {
+        this.stepId = stepId;
+    }
+
+    public String getLocalId() {
+        return localId;
+    }
+
+    public void setLocalId(String localId) {
+        this.localId = localId;
+    }
+
+    public Object getPayload() {
+        return payload;
+    }
+
+    public void setPayload(Object payload) {
+        this.payload = payload;
+    }
+}
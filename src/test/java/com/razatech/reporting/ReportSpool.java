@@ -0,0 +1,366 @@
+package com.razatech.reporting;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Write-ahead log for reporter events: test threads append to a local file, a shipper thread sends it in order
+public class ReportSpool {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final long MIN_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 30000;
+
+    private final Path file;
+    private final Path offsetFile;
+    private final Path idsFile;
+    private final boolean fsync;
+    private final FileChannel writeChannel;
+    private final FileChannel readChannel;
+    private final FileChannel offsetChannel;
+    private final BufferedWriter idsWriter;
+    private final Map<String, String> resolvedIds = new ConcurrentHashMap<>();
+    private final ByteBuffer offsetBuffer = ByteBuffer.allocate(Long.BYTES);
+    private final Object lock = new Object();
+    private final Thread shipper;
+
+    private ByteBuffer readBuffer = ByteBuffer.allocate(64 * 1024);
+    private volatile long written;
+    private volatile long shipped;
+    private volatile boolean running = true;
+
+    public ReportSpool(Path file, boolean fsync) throws IOException {
+        this.file = file;
+        this.offsetFile = Paths.get(file + ".offset");
+        this.idsFile = Paths.get(file + ".ids");
+        this.fsync = fsync;
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.writeChannel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+        this.readChannel = FileChannel.open(file, StandardOpenOption.READ);
+        this.offsetChannel = FileChannel.open(offsetFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        this.written = writeChannel.size();
+        this.shipped = readOffset();
+        loadIds();
+        this.idsWriter = Files.newBufferedWriter(idsFile, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+        this.shipper = new Thread(this::ship, "pramana-spool-shipper");
+        this.shipper.setDaemon(true);
+        this.shipper.start();
+    }
+
+    public static Path newSpoolFile(String dir) {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        return Paths.get(dir, "spool-" + timestamp + "-" + ProcessHandle.current().pid() + ".log");
+    }
+
+    // Never touches the network, so a slow or unreachable server does not hold up the test thread
+    public void append(ReportEvent event) {
+        if (event.createsResource()) {
+            event.setLocalId(AsyncReportQueue.LOCAL_ID_PREFIX + UUID.randomUUID());
+        }
+        try {
+            byte[] json = mapper.writeValueAsBytes(event);
+            ByteBuffer record = ByteBuffer.allocate(json.length + 1);
+            record.put(json).put((byte) '\n').flip();
+            synchronized (lock) {
+                while (record.hasRemaining()) {
+                    writeChannel.write(record);
+                }
+                if (fsync) {
+                    writeChannel.force(false);
+                }
+                written += record.limit();
+                lock.notifyAll();
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Failed to spool Pramana " + event.getType() + " event: " + e.getMessage());
+        }
+    }
+
+    private void ship() {
+        while (running) {
+            try {
+                if (!shipAvailable()) {
+                    synchronized (lock) {
+                        if (running && shipped >= written) {
+                            lock.wait(200);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.err.println("❌ Pramana spool shipper error: " + e.getMessage());
+                pause(MIN_BACKOFF_MS);
+            }
+        }
+    }
+
+    // Sends every complete record after the committed offset; returns false if nothing could be sent
+    private boolean shipAvailable() throws IOException {
+        readBuffer.clear();
+        int read = readChannel.read(readBuffer, shipped);
+        if (read <= 0) {
+            return false;
+        }
+
+        boolean progressed = false;
+        int lineStart = 0;
+        for (int i = 0; i < read && running; i++) {
+            if (readBuffer.get(i) != '\n') {
+                continue;
+            }
+            ReportEvent event = mapper.readValue(readBuffer.array(), lineStart, i - lineStart, ReportEvent.class);
+            if (!deliver(event)) {
+                return progressed;
+            }
+            commit(shipped + (i - lineStart) + 1);
+            lineStart = i + 1;
+            progressed = true;
+        }
+
+        // A record larger than the buffer: grow it and read again
+        if (!progressed && read == readBuffer.capacity()) {
+            readBuffer = ByteBuffer.allocate(readBuffer.capacity() * 2);
+            return true;
+        }
+        return progressed;
+    }
+
+    // Retries until the server takes the event; returns false only when the spool is closed first
+    private boolean deliver(ReportEvent event) {
+        long backoff = MIN_BACKOFF_MS;
+        while (true) {
+            try {
+                if (event.getSuiteId() != null) {
+                    String suiteId = resolve(event.getSuiteId());
+                    if (suiteId == null) {
+                        System.err.println("⚠️ Dropping " + event.getType() + " event: suite was never created");
+                        return true;
+                    }
+                    event.setSuiteId(suiteId);
+                }
+                if (event.getTestId() != null) {
+                    String testId = resolve(event.getTestId());
+                    if (testId == null) {
+                        System.err.println("⚠️ Dropping " + event.getType() + " event: test was never registered");
+                        return true;
+                    }
+                    event.setTestId(testId);
+                }
+                event.setStepId(resolve(event.getStepId()));
+
+                String serverId = PramanaReporter.deliver(event);
+                if (event.getLocalId() != null && serverId != null) {
+                    recordId(event.getLocalId(), serverId);
+                }
+                return true;
+
+            } catch (IOException e) {
+                if (!ReportDeliveryException.isRetryable(e)) {
+                    System.err.println("❌ Pramana rejected " + event.getType() + " event, skipping: " + e.getMessage());
+                    return true;
+                }
+                // Sending it again could store the test or step twice
+                if (!ReportDeliveryException.isRetryable(e, event.httpMethod())) {
+                    System.err.println("⚠️ " + event.getType() + " event may have reached Pramana (" + e.getMessage()
+                        + "), not sending it again");
+                    return true;
+                }
+                if (!running) {
+                    return false;
+                }
+                System.err.println("⚠️ Pramana server unavailable (" + e.getMessage() + "), retrying in " + backoff + " ms");
+                ReporterMetrics.retried();
+                pause(backoff);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+            } catch (Exception e) {
+                System.err.println("❌ Failed to ship " + event.getType() + " event, skipping: " + e.getMessage());
+                return true;
+            }
+        }
+    }
+
+    // The server ID for a local one, or null while the event that creates it has not been shipped
+    public String resolve(String id) {
+        if (id == null || !id.startsWith(AsyncReportQueue.LOCAL_ID_PREFIX)) {
+            return id;
+        }
+        return resolvedIds.get(id);
+    }
+
+    // A crash between sending and committing replays that one event, so delivery is at-least-once
+    private void commit(long offset) throws IOException {
+        offsetBuffer.clear();
+        offsetBuffer.putLong(offset).flip();
+        offsetChannel.write(offsetBuffer, 0);
+        if (fsync) {
+            offsetChannel.force(false);
+        }
+        synchronized (lock) {
+            shipped = offset;
+            lock.notifyAll();
+        }
+    }
+
+    private long readOffset() throws IOException {
+        if (offsetChannel.size() < Long.BYTES) {
+            return 0;
+        }
+        offsetBuffer.clear();
+        offsetChannel.read(offsetBuffer, 0);
+        offsetBuffer.flip();
+        return offsetBuffer.getLong();
+    }
+
+    private void recordId(String localId, String serverId) throws IOException {
+        resolvedIds.put(localId, serverId);
+        idsWriter.write(localId + "=" + serverId);
+        idsWriter.newLine();
+        idsWriter.flush();
+    }
+
+    private void loadIds() throws IOException {
+        if (!Files.exists(idsFile)) {
+            return;
+        }
+        for (String line : Files.readAllLines(idsFile, StandardCharsets.UTF_8)) {
+            int separator = line.indexOf('=');
+            if (separator > 0) {
+                resolvedIds.put(line.substring(0, separator), line.substring(separator + 1));
+            }
+        }
+    }
+
+    private void pause(long millis) {
+        synchronized (lock) {
+            if (!running) {
+                return;
+            }
+            try {
+                lock.wait(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public boolean flush(long timeoutMs) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (lock) {
+            while (shipped < written) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    System.err.println("⚠️ Pramana spool flush timed out with " + (written - shipped)
+                        + " bytes left in " + file);
+                    return false;
+                }
+                try {
+                    lock.wait(Math.min(remaining, 100));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Whatever could not be shipped stays on disk and can be sent later with main()
+    public boolean close(long timeoutMs, boolean keep) {
+        boolean complete = flush(timeoutMs);
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        try {
+            shipper.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            writeChannel.close();
+            readChannel.close();
+            offsetChannel.close();
+            idsWriter.close();
+            if (complete && !keep) {
+                Files.deleteIfExists(file);
+                Files.deleteIfExists(offsetFile);
+                Files.deleteIfExists(idsFile);
+            } else if (!complete) {
+                System.err.println("⚠️ Unsent Pramana events kept in " + file
+                    + " - replay with: mvn exec:java -Dexec.classpathScope=test"
+                    + " -Dexec.mainClass=" + ReportSpool.class.getName() + " -Dexec.args=\"" + file + "\"");
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Failed to close Pramana spool: " + e.getMessage());
+        }
+        return complete;
+    }
+
+    public long getUnshippedBytes() {
+        return written - shipped;
+    }
+
+    // Replays spool files left by earlier runs: ReportSpool <spool file or directory> [api base url]
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: ReportSpool <spool file or directory> [api base url]");
+            System.exit(2);
+        }
+        if (args.length > 1) {
+            PramanaReporter.configure(args[1], null);
+        }
+        long timeoutMs = PramanaConfig.getLong("reporter.spool.replay.timeout.ms", 300000);
+
+        Path target = Paths.get(args[0]);
+        List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(target)) {
+            try (Stream<Path> entries = Files.list(target)) {
+                files = entries.filter(p -> p.getFileName().toString().endsWith(".log"))
+                    .sorted()
+                    .collect(Collectors.toList());
+            }
+        } else if (Files.exists(target)) {
+            files.add(target);
+        }
+
+        boolean complete = true;
+        for (Path spoolFile : files) {
+            System.out.println("ℹ️ Replaying " + spoolFile + " to " + PramanaReporter.getBaseUrl());
+            ReportSpool spool = new ReportSpool(spoolFile, false);
+            complete &= spool.close(timeoutMs, false);
+        }
+        PramanaHttpClient.close();
+
+        if (!complete) {
+            System.exit(1);
+        }
+        System.out.println("✅ Replayed " + files.size() + " spool file(s)");
+    }
+}
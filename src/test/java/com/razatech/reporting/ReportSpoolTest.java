@@ -0,0 +1,88 @@
+package com.razatech.reporting;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class ReportSpoolTest {
+
+    private static final int STEPS = 25;
+
+    private String originalBaseUrl;
+    private String originalSuiteId;
+
+    @BeforeClass
+    public void saveConfiguration() {
+        originalBaseUrl = PramanaReporter.getBaseUrl();
+        originalSuiteId = PramanaReporter.getCurrentSuiteId();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void restoreConfiguration() {
+        PramanaReporter.configure(originalBaseUrl, originalSuiteId);
+    }
+
+    @Test(description = "Suite creation and events spooled while the server is down are replayed in order once it is back")
+    public void spooledEventsSurviveServerOutage() throws Exception {
+        Path dir = Files.createTempDirectory("pramana-spool-test");
+        Path file = ReportSpool.newSpoolFile(dir.toString());
+
+        // Nothing listens on port 1, so every delivery fails fast and stays on disk
+        PramanaReporter.configure("http://localhost:1", "suite_spool");
+        ReportSpool spool = new ReportSpool(file, true);
+        long start = System.nanoTime();
+        ReportEvent suite = new ReportEvent(ReportEvent.Type.SUITE, null, null, null,
+            new SuitePayload("spool-suite", "staging", null));
+        spool.append(suite);
+        String suiteId = suite.getLocalId();
+        ReportEvent test = event(ReportEvent.Type.TEST, suiteId, null,
+            new TestPayload("spool-test", "spool-test", "running", 0, null, null, null));
+        spool.append(test);
+        for (int i = 1; i <= STEPS; i++) {
+            spool.append(event(ReportEvent.Type.STEP, suiteId, test.getLocalId(),
+                new StepPayload(test.getLocalId(), i, "step " + i, "passed", 0, null)));
+        }
+        spool.append(event(ReportEvent.Type.TEST_UPDATE, suiteId, test.getLocalId(),
+            new TestPayload(null, null, "passed", 0, null, null, null)));
+        long appendMs = (System.nanoTime() - start) / 1_000_000;
+
+        Assert.assertTrue(appendMs < 1000, "Appending must not wait on the network, took " + appendMs + " ms");
+        Assert.assertFalse(spool.close(300, true), "Nothing can be shipped while the server is down");
+        Assert.assertTrue(Files.size(file) > 0);
+
+        StubPramanaServer server = new StubPramanaServer(false).start();
+        try {
+            PramanaReporter.configure(server.getBaseUrl(), "suite_spool");
+            ReportSpool replay = new ReportSpool(file, false);
+            Assert.assertTrue(replay.close(10000, false), "Replay should ship the whole spool");
+            Assert.assertFalse(Files.exists(file), "A fully shipped spool is deleted");
+
+            List<StubPramanaServer.RecordedRequest> requests = server.getRequests();
+            Assert.assertEquals(requests.size(), STEPS + 3);
+            String testId = server.getTestId("spool-test");
+            Assert.assertNotNull(testId);
+
+            Assert.assertEquals(requests.get(0).path, "/api/v1/suites");
+            Assert.assertEquals(requests.get(0).body.get("name").asText(), "spool-suite");
+            Assert.assertTrue(requests.get(1).path.matches("/api/v1/suites/res_\\d+/tests"), requests.get(1).path);
+            for (int i = 1; i <= STEPS; i++) {
+                StubPramanaServer.RecordedRequest step = requests.get(i + 1);
+                Assert.assertEquals(step.path, "/api/v1/steps");
+                Assert.assertEquals(step.body.get("testId").asText(), testId);
+                Assert.assertEquals(step.body.get("stepNumber").asInt(), i);
+            }
+            Assert.assertEquals(requests.get(STEPS + 2).path, "/api/v1/tests/" + testId);
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static ReportEvent event(ReportEvent.Type type, String suiteId, String testId, Object payload) {
+        return new ReportEvent(type, suiteId, testId, null, payload);
+    }
+}
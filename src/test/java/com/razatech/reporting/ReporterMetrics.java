@@ -0,0 +1,421 @@
+package com.razatech.reporting;
+
+import com.razatech.support.LatencyHistogram;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
+
+// Health of the reporter itself: requests, failures, bytes and latency per endpoint, retries, in-flight calls,
+// buffered events and the circuit breaker. Exposed over JMX (com.razatech.pramana), as Prometheus text and as a one-line summary
+public class ReporterMetrics {
+
+    // IDs in paths are collapsed so each endpoint is one series: PUT /api/v1/tests/{id}
+    private static final Pattern ID_SEGMENT = Pattern.compile("/(suites|tests)/(?!batch(?:/|$))[^/]+");
+    private static final String JMX_DOMAIN = "com.razatech.pramana";
+
+    private static final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private static final AtomicLong inFlight = new AtomicLong();
+    private static final LongAdder retries = new LongAdder();
+    private static final LongAdder circuitOpened = new LongAdder();
+    private static final LongAdder shortCircuited = new LongAdder();
+    private static final AtomicLong peakQueueDepth = new AtomicLong();
+    private static volatile LongSupplier queueDepth = () -> 0;
+    private static volatile LongSupplier spoolBacklog = () -> 0;
+    private static volatile Supplier<CircuitBreaker.State> circuitState = () -> CircuitBreaker.State.CLOSED;
+    private static final boolean JMX_ENABLED = PramanaConfig.getBoolean("reporter.metrics.jmx", true);
+    private static HttpServer httpServer;
+
+    public interface EndpointMXBean {
+        String getEndpoint();
+
+        long getRequests();
+
+        long getFailures();
+
+        long getBytesSent();
+
+        double getMeanMillis();
+
+        double getP50Millis();
+
+        double getP99Millis();
+
+        double getMaxMillis();
+    }
+
+    public interface ReporterMXBean {
+        long getRequests();
+
+        long getFailures();
+
+        long getRetries();
+
+        long getBytesSent();
+
+        long getInFlight();
+
+        long getQueueDepth();
+
+        long getPeakQueueDepth();
+
+        long getSpoolBacklogBytes();
+
+        String getCircuitState();
+
+        long getCircuitOpened();
+
+        long getShortCircuited();
+    }
+
+    static class Endpoint implements EndpointMXBean {
+        private final String name;
+        final LongAdder requests = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder bytesSent = new LongAdder();
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        Endpoint(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getEndpoint() {
+            return name;
+        }
+
+        @Override
+        public long getRequests() {
+            return requests.sum();
+        }
+
+        @Override
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        @Override
+        public long getBytesSent() {
+            return bytesSent.sum();
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return millis(latency.getMeanNanos());
+        }
+
+        @Override
+        public double getP50Millis() {
+            return millis(latency.getPercentileNanos(50));
+        }
+
+        @Override
+        public double getP99Millis() {
+            return millis(latency.getPercentileNanos(99));
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return millis(latency.getMaxNanos());
+        }
+    }
+
+    private static class Totals implements ReporterMXBean {
+        @Override
+        public long getRequests() {
+            return sum(Endpoint::getRequests);
+        }
+
+        @Override
+        public long getFailures() {
+            return sum(Endpoint::getFailures);
+        }
+
+        @Override
+        public long getRetries() {
+            return retries.sum();
+        }
+
+        @Override
+        public long getBytesSent() {
+            return sum(Endpoint::getBytesSent);
+        }
+
+        @Override
+        public long getInFlight() {
+            return inFlight.get();
+        }
+
+        @Override
+        public long getQueueDepth() {
+            return queueDepth.getAsLong();
+        }
+
+        @Override
+        public long getPeakQueueDepth() {
+            return peakQueueDepth.get();
+        }
+
+        @Override
+        public long getSpoolBacklogBytes() {
+            return spoolBacklog.getAsLong();
+        }
+
+        @Override
+        public String getCircuitState() {
+            return circuitState.get().name();
+        }
+
+        @Override
+        public long getCircuitOpened() {
+            return circuitOpened.sum();
+        }
+
+        @Override
+        public long getShortCircuited() {
+            return shortCircuited.sum();
+        }
+    }
+
+    private static final Totals totals = new Totals();
+
+    static {
+        register("type=Reporter", totals);
+        int port = PramanaConfig.getInt("reporter.metrics.http.port", 0);
+        if (port > 0) {
+            startHttpEndpoint(port);
+        }
+    }
+
+    private ReporterMetrics() {
+    }
+
+    // Call before sending; pass the returned start time to finished
+    static long started() {
+        inFlight.incrementAndGet();
+        long depth = queueDepth.getAsLong();
+        long peak = peakQueueDepth.get();
+        while (depth > peak && !peakQueueDepth.compareAndSet(peak, depth)) {
+            peak = peakQueueDepth.get();
+        }
+        return System.nanoTime();
+    }
+
+    static void finished(String method, String path, long startNanos, long bytes, boolean failed) {
+        inFlight.decrementAndGet();
+        Endpoint endpoint = endpoint(method + " " + ID_SEGMENT.matcher(path).replaceAll("/$1/{id}"));
+        endpoint.requests.increment();
+        endpoint.latency.record(System.nanoTime() - startNanos);
+        if (bytes > 0) {
+            endpoint.bytesSent.add(bytes);
+        }
+        if (failed) {
+            endpoint.failures.increment();
+        }
+    }
+
+    static void retried() {
+        retries.increment();
+    }
+
+    static void circuitOpened() {
+        circuitOpened.increment();
+    }
+
+    // A call the open circuit breaker failed without sending it
+    static void shortCircuited() {
+        shortCircuited.increment();
+    }
+
+    static void gauges(LongSupplier queued, LongSupplier spoolBytes, Supplier<CircuitBreaker.State> circuit) {
+        queueDepth = queued;
+        spoolBacklog = spoolBytes;
+        circuitState = circuit;
+    }
+
+    private static Endpoint endpoint(String name) {
+        Endpoint endpoint = endpoints.get(name);
+        if (endpoint != null) {
+            return endpoint;
+        }
+        return endpoints.computeIfAbsent(name, key -> {
+            Endpoint created = new Endpoint(key);
+            register("type=Endpoint,name=" + ObjectName.quote(key), created);
+            return created;
+        });
+    }
+
+    private static void register(String properties, Object bean) {
+        if (!JMX_ENABLED) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(JMX_DOMAIN + ":" + properties);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(bean, name);
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not register reporter metrics over JMX: " + e.getMessage());
+        }
+    }
+
+    // e.g. "Reporter: 523 requests (3 failed, 2 retries), 1240.5 KB sent, p50 3.1 ms, p99 40.2 ms, peak queue 140;
+    // most time in POST /api/v1/steps (..)" - null when nothing was sent
+    public static String summary() {
+        List<Endpoint> all = new ArrayList<>(endpoints.values());
+        if (all.isEmpty()) {
+            return null;
+        }
+        LatencyHistogram merged = new LatencyHistogram();
+        Endpoint slowest = all.get(0);
+        for (Endpoint endpoint : all) {
+            merged.merge(endpoint.latency);
+            if (endpoint.latency.getTotalNanos() > slowest.latency.getTotalNanos()) {
+                slowest = endpoint;
+            }
+        }
+        String circuit = totals.getCircuitOpened() > 0
+            ? String.format(", circuit opened %d times (%d calls skipped)", totals.getCircuitOpened(),
+                totals.getShortCircuited())
+            : "";
+        return String.format("Reporter: %d requests (%d failed, %d retries), %.1f KB sent, p50 %.1f ms, p99 %.1f ms, "
+                + "peak queue %d%s; most time in %s (%d calls, mean %.1f ms)",
+            merged.getCount(), totals.getFailures(), totals.getRetries(), totals.getBytesSent() / 1024.0,
+            millis(merged.getPercentileNanos(50)), millis(merged.getPercentileNanos(99)), totals.getPeakQueueDepth(),
+            circuit, slowest.getEndpoint(), slowest.getRequests(), slowest.getMeanMillis());
+    }
+
+    // Prometheus text exposition format
+    public static String prometheus() {
+        StringBuilder out = new StringBuilder();
+        Map<String, Endpoint> sorted = new TreeMap<>(endpoints);
+
+        header(out, "pramana_reporter_requests_total", "counter", "Requests sent to the Pramana server");
+        sorted.forEach((name, e) -> sample(out, "pramana_reporter_requests_total", name, e.getRequests()));
+        header(out, "pramana_reporter_failures_total", "counter", "Requests that failed or were rejected");
+        sorted.forEach((name, e) -> sample(out, "pramana_reporter_failures_total", name, e.getFailures()));
+        header(out, "pramana_reporter_sent_bytes_total", "counter", "Request body bytes sent before compression");
+        sorted.forEach((name, e) -> sample(out, "pramana_reporter_sent_bytes_total", name, e.getBytesSent()));
+        header(out, "pramana_reporter_request_duration_seconds", "summary", "Request latency");
+        sorted.forEach((name, e) -> {
+            for (double quantile : Arrays.asList(0.5, 0.9, 0.99)) {
+                out.append("pramana_reporter_request_duration_seconds{endpoint=\"").append(name)
+                    .append("\",quantile=\"").append(quantile).append("\"} ")
+                    .append(e.latency.getPercentileNanos(quantile * 100) / 1e9).append('\n');
+            }
+            out.append("pramana_reporter_request_duration_seconds_sum{endpoint=\"").append(name).append("\"} ")
+                .append(e.latency.getTotalNanos() / 1e9).append('\n');
+            out.append("pramana_reporter_request_duration_seconds_count{endpoint=\"").append(name).append("\"} ")
+                .append(e.latency.getCount()).append('\n');
+        });
+
+        header(out, "pramana_reporter_retries_total", "counter", "Deliveries retried after a failure");
+        out.append("pramana_reporter_retries_total ").append(totals.getRetries()).append('\n');
+        header(out, "pramana_reporter_in_flight", "gauge", "Requests currently being sent");
+        out.append("pramana_reporter_in_flight ").append(totals.getInFlight()).append('\n');
+        header(out, "pramana_reporter_queue_depth", "gauge", "Events queued or batched but not yet sent");
+        out.append("pramana_reporter_queue_depth ").append(totals.getQueueDepth()).append('\n');
+        header(out, "pramana_reporter_spool_backlog_bytes", "gauge", "Spooled bytes not yet shipped");
+        out.append("pramana_reporter_spool_backlog_bytes ").append(totals.getSpoolBacklogBytes()).append('\n');
+        header(out, "pramana_reporter_circuit_state", "gauge", "1 for the circuit breaker's current state");
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            out.append("pramana_reporter_circuit_state{state=\"").append(state.name().toLowerCase()).append("\"} ")
+                .append(state == circuitState.get() ? 1 : 0).append('\n');
+        }
+        header(out, "pramana_reporter_circuit_opened_total", "counter", "Times the circuit breaker opened");
+        out.append("pramana_reporter_circuit_opened_total ").append(totals.getCircuitOpened()).append('\n');
+        header(out, "pramana_reporter_short_circuited_total", "counter", "Calls skipped while the circuit was open");
+        out.append("pramana_reporter_short_circuited_total ").append(totals.getShortCircuited()).append('\n');
+        return out.toString();
+    }
+
+    // For node_exporter's textfile collector; does nothing unless reporter.metrics.file is set
+    public static void writePrometheusFile() {
+        String file = PramanaConfig.get("reporter.metrics.file", "");
+        if (file.isEmpty()) {
+            return;
+        }
+        // Written to a temp file and moved into place so a scrape never sees half a file
+        try {
+            Path target = Paths.get(file).toAbsolutePath();
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            Files.write(temp, prometheus().getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not write reporter metrics to " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static void startHttpEndpoint(int port) {
+        try {
+            httpServer = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+            httpServer.createContext("/metrics", exchange -> {
+                byte[] body = prometheus().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            // The JDK server's dispatcher thread is not a daemon, so it must not keep the test JVM alive
+            Thread starter = new Thread(httpServer::start, "pramana-metrics-http");
+            starter.setDaemon(true);
+            starter.start();
+            starter.join();
+            System.out.println("ℹ️ Reporter metrics served at http://localhost:" + port + "/metrics");
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not serve reporter metrics on port " + port + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static void reset() {
+        endpoints.clear();
+        retries.reset();
+        circuitOpened.reset();
+        shortCircuited.reset();
+        peakQueueDepth.set(0);
+    }
+
+    private static void header(StringBuilder out, String metric, String type, String help) {
+        out.append("# HELP ").append(metric).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(metric).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String metric, String endpoint, long value) {
+        out.append(metric).append("{endpoint=\"").append(endpoint).append("\"} ").append(value).append('\n');
+    }
+
+    private static long sum(ToLongFunction<Endpoint> value) {
+        return endpoints.values().stream().mapToLong(value).sum();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,74 @@
+package com.razatech.reporting;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+public class ReporterMetricsTest {
+
+    private StubPramanaServer server;
+    private String originalBaseUrl;
+    private String originalSuiteId;
+
+    @BeforeClass
+    public void startStub() throws Exception {
+        server = new StubPramanaServer(false).start();
+        originalBaseUrl = PramanaReporter.getBaseUrl();
+        originalSuiteId = PramanaReporter.getCurrentSuiteId();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        PramanaReporter.configure(originalBaseUrl, originalSuiteId);
+        server.stop();
+    }
+
+    @Test(description = "Requests, failures and bytes are counted per endpoint and exposed over JMX and as Prometheus text")
+    public void countsRequestsPerEndpoint() throws Exception {
+        ReporterMetrics.reset();
+        PramanaReporter.configure(server.getBaseUrl(), "suite_metrics");
+        String testId = PramanaReporter.deliver(new ReportEvent(ReportEvent.Type.TEST, "suite_metrics", null, null,
+            new TestPayload("metrics", "metrics", "running", 0, null, null, null)));
+        for (int i = 1; i <= 3; i++) {
+            PramanaReporter.deliver(new ReportEvent(ReportEvent.Type.STEP, "suite_metrics", testId, null,
+                new StepPayload(testId, i, "step " + i, "passed", 0, null)));
+        }
+        PramanaReporter.deliver(new ReportEvent(ReportEvent.Type.TEST_UPDATE, "suite_metrics", testId, null,
+            new TestPayload(null, null, "passed", 0, null, null, null)));
+
+        // Nothing listens on port 1, so this one fails on all 3 attempts
+        PramanaReporter.configure("http://localhost:1", "suite_metrics");
+        Assert.expectThrows(IOException.class, () -> PramanaReporter.deliver(new ReportEvent(ReportEvent.Type.STEP,
+            "suite_metrics", testId, null, new StepPayload(testId, 4, "step 4", "passed", 0, null))));
+
+        MBeanServer mbeans = ManagementFactory.getPlatformMBeanServer();
+        ObjectName steps = new ObjectName("com.razatech.pramana:type=Endpoint,name="
+            + ObjectName.quote("POST /api/v1/steps"));
+        Assert.assertEquals(mbeans.getAttribute(steps, "Requests"), 6L);
+        Assert.assertEquals(mbeans.getAttribute(steps, "Failures"), 3L);
+        Assert.assertTrue((Long) mbeans.getAttribute(steps, "BytesSent") > 0);
+        ObjectName reporter = new ObjectName("com.razatech.pramana:type=Reporter");
+        Assert.assertEquals(mbeans.getAttribute(reporter, "Requests"), 8L);
+        Assert.assertEquals(mbeans.getAttribute(reporter, "Retries"), 2L);
+        Assert.assertEquals(mbeans.getAttribute(reporter, "InFlight"), 0L);
+
+        String prometheus = ReporterMetrics.prometheus();
+        Assert.assertTrue(prometheus.contains("pramana_reporter_requests_total{endpoint=\"POST /api/v1/suites/{id}/tests\"} 1\n"),
+            prometheus);
+        Assert.assertTrue(prometheus.contains("pramana_reporter_requests_total{endpoint=\"PUT /api/v1/tests/{id}\"} 1\n"),
+            prometheus);
+        Assert.assertTrue(prometheus.contains("pramana_reporter_failures_total{endpoint=\"POST /api/v1/steps\"} 3\n"),
+            prometheus);
+        Assert.assertTrue(prometheus.contains("pramana_reporter_request_duration_seconds_count{endpoint=\"POST /api/v1/steps\"} 6\n"),
+            prometheus);
+
+        Assert.assertTrue(ReporterMetrics.summary().startsWith("Reporter: 8 requests (3 failed, 2 retries)"),
+            ReporterMetrics.summary());
+    }
+}
@@ -0,0 +1,112 @@
+package com.razatech.reporting;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+public class ReporterRetryTest {
+
+    private StubPramanaServer server;
+    private String originalBaseUrl;
+    private String originalSuiteId;
+
+    @BeforeClass
+    public void startStub() throws Exception {
+        server = new StubPramanaServer(false).start();
+        originalBaseUrl = PramanaReporter.getBaseUrl();
+        originalSuiteId = PramanaReporter.getCurrentSuiteId();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        PramanaReporter.configure(originalBaseUrl, originalSuiteId);
+        server.stop();
+    }
+
+    @Test(description = "A 503 on a PUT is retried")
+    public void retriesServerErrors() throws Exception {
+        PramanaReporter.configure(server.getBaseUrl(), "suite_retry");
+        int rejectedBefore = server.getRejected().size();
+        int acceptedBefore = server.getRequests().size();
+        server.failNext(2, 503);
+        PramanaReporter.deliver(new ReportEvent(ReportEvent.Type.SUITE_COMPLETE, "suite_retry", null, null, null));
+
+        Assert.assertEquals(server.getRejected().size(), rejectedBefore + 2);
+        StubPramanaServer.RecordedRequest complete = server.getRequests().get(acceptedBefore);
+        Assert.assertEquals(complete.path, "/api/v1/suites/suite_retry/complete");
+    }
+
+    @Test(description = "A POST that reached the server is not sent again, so a test is never registered twice")
+    public void postsThatReachedTheServerAreNotRetried() {
+        PramanaReporter.configure(server.getBaseUrl(), "suite_retry");
+        int rejectedBefore = server.getRejected().size();
+        int acceptedBefore = server.getRequests().size();
+        server.failNext(1, 503);
+        ReportDeliveryException e = Assert.expectThrows(ReportDeliveryException.class,
+            () -> PramanaReporter.deliver(new ReportEvent(ReportEvent.Type.TEST, "suite_retry", null, null,
+                new TestPayload("no_retry", "no_retry", "running", 0, null, null, null))));
+
+        Assert.assertEquals(e.getStatusCode(), 503);
+        Assert.assertFalse(ReportDeliveryException.isRetryable(e, "POST"));
+        Assert.assertEquals(server.getRejected().size(), rejectedBefore + 1);
+        Assert.assertEquals(server.getRequests().size(), acceptedBefore);
+    }
+
+    @Test(description = "A queued POST carries its local ID as Idempotency-Key; direct calls and PUTs send none")
+    public void idempotencyKeyIsTheLocalId() throws Exception {
+        PramanaReporter.configure(server.getBaseUrl(), "suite_retry");
+        int acceptedBefore = server.getRequests().size();
+        ReportEvent queued = new ReportEvent(ReportEvent.Type.TEST, "suite_retry", null, null,
+            new TestPayload("keyed", "keyed", "running", 0, null, null, null));
+        queued.setLocalId(AsyncReportQueue.LOCAL_ID_PREFIX + "42");
+        PramanaReporter.deliver(queued);
+        PramanaReporter.deliver(new ReportEvent(ReportEvent.Type.TEST, "suite_retry", null, null,
+            new TestPayload("unkeyed", "unkeyed", "running", 0, null, null, null)));
+        PramanaReporter.deliver(new ReportEvent(ReportEvent.Type.SUITE_COMPLETE, "suite_retry", null, null, null));
+
+        List<StubPramanaServer.RecordedRequest> requests = server.getRequests();
+        Assert.assertEquals(requests.get(acceptedBefore).idempotencyKey, AsyncReportQueue.LOCAL_ID_PREFIX + "42");
+        Assert.assertNull(requests.get(acceptedBefore + 1).idempotencyKey);
+        Assert.assertNull(requests.get(acceptedBefore + 2).idempotencyKey, "PUTs are idempotent by themselves");
+    }
+
+    @Test(description = "A 400 is final and is not retried")
+    public void clientErrorsAreNotRetried() {
+        PramanaReporter.configure(server.getBaseUrl(), "suite_retry");
+        int before = server.getRejected().size();
+        server.failNext(1, 400);
+        ReportDeliveryException e = Assert.expectThrows(ReportDeliveryException.class,
+            () -> PramanaReporter.deliver(new ReportEvent(ReportEvent.Type.TEST_UPDATE, "suite_retry", "test_x", null,
+                new TestPayload(null, null, "passed", 0, null, null, null))));
+        Assert.assertEquals(e.getStatusCode(), 400);
+        Assert.assertEquals(server.getRejected().size(), before + 1);
+    }
+
+    @Test(description = "Once the server keeps failing, calls fail in microseconds instead of waiting on it")
+    public void openCircuitShortCircuitsCalls() {
+        // Nothing listens on port 1
+        PramanaReporter.configure("http://localhost:1", "suite_retry");
+        ReportEvent update = new ReportEvent(ReportEvent.Type.TEST_UPDATE, "suite_retry", "test_x", null,
+            new TestPayload(null, null, "passed", 0, null, null, null));
+        for (int i = 0; i < 2; i++) {
+            Assert.expectThrows(IOException.class, () -> PramanaReporter.deliver(update));
+        }
+
+        long start = System.nanoTime();
+        ReportDeliveryException e = Assert.expectThrows(ReportDeliveryException.class,
+            () -> PramanaReporter.deliver(update));
+        long micros = (System.nanoTime() - start) / 1000;
+        Assert.assertTrue(e.getMessage().contains("circuit is open"), e.getMessage());
+        Assert.assertTrue(e.isRetryable(), "The spool keeps the event and tries again later");
+        Assert.assertTrue(micros < 50_000, "An open circuit should not wait on the network, took " + micros + " us");
+        Assert.assertTrue(ReporterMetrics.prometheus().contains("pramana_reporter_circuit_state{state=\"open\"} 1"));
+
+        // Pointing the reporter at a server again starts with a closed circuit
+        PramanaReporter.configure(server.getBaseUrl(), "suite_retry");
+        Assert.assertTrue(ReporterMetrics.prometheus().contains("pramana_reporter_circuit_state{state=\"closed\"} 1"));
+    }
+}
@@ -0,0 +1,42 @@
+package com.razatech.reporting;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReportingContext {
+
+    private final String testId;
+    private final AtomicInteger stepCounter = new AtomicInteger();
+    // Step numbers of the step scopes currently open, innermost first; only touched by the test thread
+    private final Deque<Integer> openSteps = new ArrayDeque<>();
+
+    public ReportingContext(String testId) {
+        this.testId = testId;
+    }
+
+    public String getTestId() {
+        return testId;
+    }
+
+    public int nextStepNumber() {
+        return stepCounter.incrementAndGet();
+    }
+
+    public int getStepCount() {
+        return stepCounter.get();
+    }
+
+    Integer currentStep() {
+        return openSteps.peek();
+    }
+
+    int openStep(int stepNumber) {
+        openSteps.push(stepNumber);
+        return openSteps.size();
+    }
+
+    void closeStep(int stepNumber) {
+        openSteps.remove(stepNumber);
+    }
+}
@@ -0,0 +1,104 @@
+package com.razatech.reporting;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ReportingContextStressTest {
+
+    private static final int TESTS_PER_THREAD = 20;
+    private static final int STEPS_PER_TEST = 10;
+
+    private StubPramanaServer server;
+    private String originalBaseUrl;
+    private String originalSuiteId;
+
+    @BeforeClass
+    public void startStub() throws Exception {
+        server = new StubPramanaServer(false).start();
+        originalBaseUrl = PramanaReporter.getBaseUrl();
+        originalSuiteId = PramanaReporter.getCurrentSuiteId();
+        PramanaReporter.configure(server.getBaseUrl(), "suite_stress");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        PramanaReporter.flush();
+        PramanaReporter.configure(originalBaseUrl, originalSuiteId);
+        server.stop();
+    }
+
+    @Test(description = "Steps logged from parallel tests stay attached to their own test")
+    public void stepsAreNeverCrossAttributed() throws Exception {
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            String worker = "stress-t" + t;
+            futures.add(pool.submit(() -> {
+                startGate.await();
+                for (int i = 0; i < TESTS_PER_THREAD; i++) {
+                    String testCaseId = worker + "-test" + i;
+                    String testId = PramanaReporter.startTest(testCaseId, testCaseId);
+                    for (int step = 1; step <= STEPS_PER_TEST; step++) {
+                        PramanaReporter.logStep(testCaseId + "#" + step, "passed", 0);
+                    }
+                    PramanaReporter.finishTest(testId, "passed", 0, null, null);
+                }
+                return null;
+            }));
+        }
+
+        startGate.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        PramanaReporter.flush();
+
+        Map<String, Integer> stepsPerTest = new HashMap<>();
+        for (StubPramanaServer.RecordedRequest request : server.getRequests()) {
+            if (!request.path.startsWith("/api/v1/steps")) {
+                continue;
+            }
+            List<JsonNode> steps = new ArrayList<>();
+            if (request.body.isArray()) {
+                request.body.forEach(steps::add);
+            } else {
+                steps.add(request.body);
+            }
+            for (JsonNode step : steps) {
+                String description = step.get("description").asText();
+                if (!description.startsWith("stress-")) {
+                    continue;
+                }
+                String testCaseId = description.substring(0, description.indexOf('#'));
+                int expectedStepNumber = Integer.parseInt(description.substring(description.indexOf('#') + 1));
+
+                Assert.assertEquals(step.get("testId").asText(), server.getTestId(testCaseId),
+                    "Step '" + description + "' was attached to the wrong test");
+                Assert.assertEquals(step.get("stepNumber").asInt(), expectedStepNumber,
+                    "Step '" + description + "' has the wrong step number");
+                stepsPerTest.merge(testCaseId, 1, Integer::sum);
+            }
+        }
+
+        Assert.assertEquals(stepsPerTest.size(), threads * TESTS_PER_THREAD, "Not every test reported its steps");
+        for (Map.Entry<String, Integer> entry : stepsPerTest.entrySet()) {
+            Assert.assertEquals((int) entry.getValue(), STEPS_PER_TEST, "Wrong step count for " + entry.getKey());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.razatech.reporting;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+// Optional re-encoding of PNG screenshots before upload: downscale to a max width and/or convert to JPEG
+public class ScreenshotEncoder {
+
+    private static final String FORMAT = PramanaConfig.get("reporter.screenshot.format", "png").toLowerCase();
+    private static final float QUALITY = quality(PramanaConfig.getFloat("reporter.screenshot.quality", 0.8f));
+    private static final int MAX_WIDTH = PramanaConfig.getInt("reporter.screenshot.max.width", 0);
+
+    // JPEG quality is a fraction; anything else would make every encode throw
+    private static float quality(float value) {
+        if (value < 0 || value > 1 || Float.isNaN(value)) {
+            System.err.println("⚠️ Invalid value for reporter.screenshot.quality: " + value + ". Using 0.8");
+            return 0.8f;
+        }
+        return value;
+    }
+
+    public static boolean isEnabled() {
+        return MAX_WIDTH > 0 || FORMAT.equals("jpeg") || FORMAT.equals("jpg");
+    }
+
+    public static String fileName(String name) {
+        if (FORMAT.equals("jpeg") || FORMAT.equals("jpg")) {
+            return name.replaceFirst("\\.png$", "") + ".jpg";
+        }
+        return name;
+    }
+
+    public static byte[] encode(byte[] png) {
+        if (!isEnabled()) {
+            return png;
+        }
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            if (image == null) {
+                return png;
+            }
+            boolean jpeg = FORMAT.equals("jpeg") || FORMAT.equals("jpg");
+            boolean downscale = MAX_WIDTH > 0 && image.getWidth() > MAX_WIDTH;
+            if (!jpeg && !downscale) {
+                return png;
+            }
+            image = scale(image, jpeg);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(png.length / 2);
+            if (jpeg) {
+                ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(QUALITY);
+                try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+                    writer.setOutput(imageOut);
+                    writer.write(null, new IIOImage(image, null, null), param);
+                } finally {
+                    writer.dispose();
+                }
+            } else {
+                ImageIO.write(image, "png", out);
+            }
+            return out.toByteArray();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("⚠️ Could not re-encode screenshot, sending original: " + e.getMessage());
+            return png;
+        }
+    }
+
+    // JPEG has no alpha channel, so the image is redrawn as RGB even when it is not resized
+    private static BufferedImage scale(BufferedImage image, boolean rgb) {
+        int width = MAX_WIDTH > 0 ? Math.min(MAX_WIDTH, image.getWidth()) : image.getWidth();
+        int height = (int) Math.round(image.getHeight() * (width / (double) image.getWidth()));
+        int type = rgb || image.getType() == BufferedImage.TYPE_CUSTOM ? BufferedImage.TYPE_INT_RGB : image.getType();
+
+        BufferedImage scaled = new BufferedImage(width, height, type);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+}
@@ -0,0 +1,118 @@
+package com.razatech.reporting;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Failure traces without framework noise; a failure site already reported in this suite is sent as a reference
+public class StackTraces {
+
+    private static final boolean DEDUPE = PramanaConfig.getBoolean("reporter.stacktrace.dedupe", true);
+    private static final Set<String> reported = ConcurrentHashMap.newKeySet();
+    private static final List<String> FILTERED_PREFIXES = Arrays.asList(PramanaConfig.get("reporter.stacktrace.filter",
+        "org.testng.,org.apache.maven.surefire.,jdk.internal.reflect.,java.lang.reflect.,sun.reflect.").split("\\s*,\\s*"));
+
+    private StackTraces() {
+    }
+
+    // The frames above the test class are the failure site, shared when e.g. one page object locator breaks;
+    // after the first upload only its fingerprint and the test's own frames are sent
+    public static String compact(Throwable error, String testClassName) {
+        String trace = trim(error);
+        if (trace == null || !DEDUPE) {
+            return trace;
+        }
+        int testFrame = testClassName != null ? trace.indexOf("\tat " + testClassName + ".") : -1;
+        String site = testFrame >= 0 ? trace.substring(0, testFrame) : trace;
+        String hash = fingerprint(site);
+
+        if (reported.add(hash)) {
+            return "Stack trace #" + hash + "\n" + trace;
+        }
+        return "Stack trace #" + hash + " (failure site already reported in this suite)\n"
+            + (testFrame >= 0 ? trace.substring(testFrame) : "");
+    }
+
+    public static void reset() {
+        reported.clear();
+    }
+
+    // Like printStackTrace(), minus TestNG, surefire and reflection frames; causes are kept
+    public static String trim(Throwable error) {
+        if (error == null) {
+            return null;
+        }
+        StringBuilder trace = new StringBuilder();
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Throwable current = error; current != null && seen.add(current); current = current.getCause()) {
+            if (current != error) {
+                trace.append("Caused by: ");
+            }
+            trace.append(current).append('\n');
+
+            int filtered = 0;
+            for (StackTraceElement frame : current.getStackTrace()) {
+                if (isFiltered(frame)) {
+                    filtered++;
+                    continue;
+                }
+                appendFiltered(trace, filtered);
+                filtered = 0;
+                trace.append("\tat ").append(frame).append('\n');
+            }
+            appendFiltered(trace, filtered);
+        }
+        return trace.toString();
+    }
+
+    // Hash of the frames only, so the same failure with a different message still matches
+    public static String fingerprint(String trace) {
+        if (trace == null) {
+            return null;
+        }
+        StringBuilder frames = new StringBuilder(trace.length());
+        for (String line : trace.split("\n")) {
+            String stripped = line.trim();
+            if (stripped.startsWith("at ") || stripped.startsWith("...")) {
+                frames.append(stripped).append('\n');
+            } else {
+                // Keep the exception type, drop its message
+                int colon = stripped.indexOf(':', stripped.startsWith("Caused by: ") ? 11 : 0);
+                frames.append(colon > 0 ? stripped.substring(0, colon) : stripped).append('\n');
+            }
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(frames.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isFiltered(StackTraceElement frame) {
+        String className = frame.getClassName();
+        for (String prefix : FILTERED_PREFIXES) {
+            if (!prefix.isEmpty() && className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void appendFiltered(StringBuilder trace, int filtered) {
+        if (filtered > 0) {
+            trace.append("\t... ").append(filtered).append(filtered == 1 ? " framework frame" : " framework frames")
+                .append(" filtered\n");
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.razatech.reporting;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class StackTracesTest {
+
+    private static final String TEST_CLASS = "com.example.tests.CheckoutTest";
+
+    @Test(description = "Framework and reflection frames are dropped, causes are kept")
+    public void trimDropsFrameworkFrames() {
+        RuntimeException cause = failure("locator not found", "verifyTotal");
+        IllegalStateException error = new IllegalStateException("wrapped", cause);
+        error.setStackTrace(frames("verifyTotal"));
+
+        String trace = StackTraces.trim(error);
+
+        Assert.assertTrue(trace.startsWith("java.lang.IllegalStateException: wrapped\n"), trace);
+        Assert.assertTrue(trace.contains("Caused by: java.lang.RuntimeException: locator not found"), trace);
+        Assert.assertTrue(trace.contains("\tat com.example.pages.CartPage.total(CartPage.java:42)"), trace);
+        Assert.assertFalse(trace.contains("org.testng"), trace);
+        Assert.assertFalse(trace.contains("jdk.internal.reflect"), trace);
+        Assert.assertTrue(trace.contains("\t... 3 framework frames filtered"), trace);
+    }
+
+    @Test(description = "The same failure site in another test is sent as a reference plus that test's frames")
+    public void compactReferencesRepeatedFailureSites() {
+        StackTraces.reset();
+        String first = StackTraces.compact(failure("total is 0", "verifyTotal"), TEST_CLASS);
+        String second = StackTraces.compact(failure("total is 3", "verifyDiscount"), TEST_CLASS);
+        String other = StackTraces.compact(new IllegalArgumentException("unrelated"), TEST_CLASS);
+
+        String hash = first.substring("Stack trace #".length(), first.indexOf('\n'));
+        Assert.assertTrue(first.contains("CartPage.total"), first);
+        Assert.assertTrue(second.startsWith("Stack trace #" + hash + " (failure site already reported"), second);
+        Assert.assertFalse(second.contains("CartPage.total"), second);
+        Assert.assertTrue(second.contains(TEST_CLASS + ".verifyDiscount"), second);
+        Assert.assertTrue(second.length() < first.length() / 2, "Repeated trace should be much shorter");
+        Assert.assertFalse(other.contains(hash), other);
+
+        StackTraces.reset();
+        Assert.assertTrue(StackTraces.compact(failure("total is 0", "verifyTotal"), TEST_CLASS).contains("CartPage.total"),
+            "A new suite reports the full trace again");
+    }
+
+    private static RuntimeException failure(String message, String testMethod) {
+        RuntimeException error = new RuntimeException(message);
+        error.setStackTrace(frames(testMethod));
+        return error;
+    }
+
+    private static StackTraceElement[] frames(String testMethod) {
+        return new StackTraceElement[]{
+            new StackTraceElement("org.openqa.selenium.remote.RemoteWebDriver", "findElement", "RemoteWebDriver.java", 350),
+            new StackTraceElement("com.example.support.Waits", "visible", "Waits.java", 88),
+            new StackTraceElement("com.example.pages.CartPage", "total", "CartPage.java", 42),
+            new StackTraceElement(TEST_CLASS, testMethod, "CheckoutTest.java", 17),
+            new StackTraceElement("jdk.internal.reflect.NativeMethodAccessorImpl", "invoke", null, -1),
+            new StackTraceElement("java.lang.reflect.Method", "invoke", "Method.java", 568),
+            new StackTraceElement("org.testng.internal.invokers.MethodInvocationHelper", "invokeMethod", "MethodInvocationHelper.java", 139)
+        };
+    }
+}
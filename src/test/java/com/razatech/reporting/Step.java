@@ -0,0 +1,87 @@
+package com.razatech.reporting;
+
+// A timed step: logged as passed when closed unless fail() was called first
+public class Step implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface Action<E extends Exception> {
+        void run() throws E;
+    }
+
+    @FunctionalInterface
+    public interface Function<T, E extends Exception> {
+        T get() throws E;
+    }
+
+    private final ReportingContext context;
+    private final String description;
+    private final int stepNumber;
+    private final Integer parentStepNumber;
+    private final int level;
+    private final long startNanos;
+    private String status = "passed";
+    private String errorMessage;
+    private boolean closed;
+
+    Step(ReportingContext context, String description) {
+        this.context = context;
+        this.description = description;
+        if (context != null) {
+            this.parentStepNumber = context.currentStep();
+            this.stepNumber = context.nextStepNumber();
+            this.level = context.openStep(stepNumber);
+        } else {
+            this.parentStepNumber = null;
+            this.stepNumber = 0;
+            this.level = 0;
+        }
+        this.startNanos = System.nanoTime();
+    }
+
+    public Step fail(Throwable error) {
+        status = "failed";
+        errorMessage = error.getClass().getSimpleName() + (error.getMessage() != null ? ": " + error.getMessage() : "");
+        return this;
+    }
+
+    public Step fail(String message) {
+        status = "failed";
+        errorMessage = message;
+        return this;
+    }
+
+    public int getStepNumber() {
+        return stepNumber;
+    }
+
+    @Override
+    public void close() {
+        long durationNanos = System.nanoTime() - startNanos;
+        if (closed || context == null) {
+            return;
+        }
+        closed = true;
+        context.closeStep(stepNumber);
+        PramanaReporter.logTimedStep(context, this, durationNanos);
+    }
+
+    String getDescription() {
+        return description;
+    }
+
+    Integer getParentStepNumber() {
+        return parentStepNumber;
+    }
+
+    int getLevel() {
+        return level;
+    }
+
+    String getStatus() {
+        return status;
+    }
+
+    String getErrorMessage() {
+        return errorMessage;
+    }
+}
@@ -0,0 +1,103 @@
+package com.razatech.reporting;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StepPayload {
+
+    private String testId;
+    private int stepNumber;
+    private String description;
+    private String status;
+    private long duration;
+    private String errorMessage;
+    // Only sent for steps timed with PramanaReporter.step()
+    private Long durationNanos;
+    private Integer level;
+    private Integer parentStepNumber;
+
+    public StepPayload() {
+    }
+
+    public StepPayload(String testId, int stepNumber, String description, String status, long duration,
+                       String errorMessage) {
+        this.testId = testId;
+        this.stepNumber = stepNumber;
+        this.description = description;
+        this.status = status;
+        this.duration = duration;
+        this.errorMessage = errorMessage;
+    }
+
+    public String getTestId() {
+        return testId;
+    }
+
+    public void setTestId(String testId) {
+        this.testId = testId;
+    }
+
+    public int getStepNumber() {
+        return stepNumber;
+    }
+
+    public void setStepNumber(int stepNumber) {
+        this.stepNumber = stepNumber;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public void setDuration(long duration) {
+        this.duration = duration;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public Long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public void setDurationNanos(Long durationNanos) {
+        this.durationNanos = durationNanos;
+    }
+
+    public Integer getLevel() {
+        return level;
+    }
+
+    public void setLevel(Integer level) {
+        this.level = level;
+    }
+
+    public Integer getParentStepNumber() {
+        return parentStepNumber;
+    }
+
+    public void setParentStepNumber(Integer parentStepNumber) {
+        this.parentStepNumber = parentStepNumber;
+    }
+}
@@ -0,0 +1,80 @@
+package com.razatech.reporting;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class StepTimingTest {
+
+    private StubPramanaServer server;
+    private String originalBaseUrl;
+    private String originalSuiteId;
+
+    @BeforeClass
+    public void startStub() throws Exception {
+        server = new StubPramanaServer(false).start();
+        originalBaseUrl = PramanaReporter.getBaseUrl();
+        originalSuiteId = PramanaReporter.getCurrentSuiteId();
+        PramanaReporter.configure(server.getBaseUrl(), "suite_steps");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        PramanaReporter.flush();
+        PramanaReporter.configure(originalBaseUrl, originalSuiteId);
+        server.stop();
+    }
+
+    @Test(description = "Nested steps keep their parent and a failing step is logged before the error propagates")
+    public void stepsAreTimedNestedAndFailuresLogged() {
+        String testId = PramanaReporter.startTest("step-timing", "step-timing");
+
+        try (Step outer = PramanaReporter.step("outer")) {
+            Assert.assertEquals(outer.getStepNumber(), 1);
+            PramanaReporter.step("inner pass", () -> { });
+            int value = PramanaReporter.step("inner value", () -> 42);
+            Assert.assertEquals(value, 42);
+        }
+        AssertionError thrown = Assert.expectThrows(AssertionError.class,
+            () -> PramanaReporter.step("failing", () -> Assert.fail("boom")));
+        Assert.assertEquals(thrown.getMessage(), "boom");
+        PramanaReporter.finishTest(testId, "failed", 0, null, null);
+        PramanaReporter.flush();
+
+        String serverTestId = server.getTestId("step-timing");
+        Map<String, JsonNode> steps = new HashMap<>();
+        for (StubPramanaServer.RecordedRequest request : server.getRequests()) {
+            if (request.path.equals("/api/v1/steps") && serverTestId.equals(request.body.get("testId").asText())) {
+                steps.put(request.body.get("description").asText(), request.body);
+            }
+        }
+        Assert.assertEquals(steps.size(), 4);
+
+        JsonNode outer = steps.get("outer");
+        Assert.assertEquals(outer.get("stepNumber").asInt(), 1);
+        Assert.assertEquals(outer.get("level").asInt(), 1);
+        Assert.assertFalse(outer.has("parentStepNumber"));
+        for (String inner : List.of("inner pass", "inner value")) {
+            Assert.assertEquals(steps.get(inner).get("parentStepNumber").asInt(), 1);
+            Assert.assertEquals(steps.get(inner).get("level").asInt(), 2);
+            Assert.assertEquals(steps.get(inner).get("status").asText(), "passed");
+        }
+        Assert.assertTrue(outer.get("durationNanos").asLong() >= steps.get("inner pass").get("durationNanos").asLong());
+
+        JsonNode failing = steps.get("failing");
+        Assert.assertEquals(failing.get("status").asText(), "failed");
+        Assert.assertEquals(failing.get("errorMessage").asText(), "AssertionError: boom");
+        Assert.assertEquals(failing.get("level").asInt(), 1);
+
+        List<Integer> numbers = steps.values().stream().map(s -> s.get("stepNumber").asInt()).sorted()
+            .collect(Collectors.toList());
+        Assert.assertEquals(numbers, List.of(1, 2, 3, 4));
+    }
+}
@@ -0,0 +1,81 @@
+package com.razatech.reporting;
+
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.AbstractHttpEntity;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Writes the attachment JSON with the binary content Base64-encoded straight into the socket,
+// so no Base64 string or serialized copy of the image is ever built on the heap
+public class StreamingAttachmentEntity extends AbstractHttpEntity {
+
+    private static final byte[] CONTENT_OPEN = ",\"content\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CONTENT_CLOSE = "\"}".getBytes(StandardCharsets.US_ASCII);
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    private final byte[] metadataJson;
+    private final byte[] content;
+
+    // metadataJson is the serialized attachment without its content, e.g. {"type":"screenshot","name":"a.png"}
+    public StreamingAttachmentEntity(byte[] metadataJson, byte[] content) {
+        super(ContentType.APPLICATION_JSON, null);
+        this.metadataJson = metadataJson;
+        this.content = content;
+    }
+
+    @Override
+    public long getContentLength() {
+        long base64Length = 4L * ((content.length + 2) / 3);
+        return (metadataJson.length - 1) + CONTENT_OPEN.length + base64Length + CONTENT_CLOSE.length;
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        // Drop the closing brace of the metadata object and append the content field
+        out.write(metadataJson, 0, metadataJson.length - 1);
+        out.write(CONTENT_OPEN);
+
+        OutputStream encoder = Base64.getEncoder().wrap(new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush(); // Leave the connection stream open
+            }
+        });
+        for (int offset = 0; offset < content.length; offset += CHUNK_SIZE) {
+            encoder.write(content, offset, Math.min(CHUNK_SIZE, content.length - offset));
+        }
+        encoder.close();
+
+        out.write(CONTENT_CLOSE);
+        out.flush();
+    }
+
+    @Override
+    public InputStream getContent() {
+        throw new UnsupportedOperationException("Streamed entity, use writeTo");
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    @Override
+    public void close() {
+    }
+}
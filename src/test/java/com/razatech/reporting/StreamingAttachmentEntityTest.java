@@ -0,0 +1,77 @@
+package com.razatech.reporting;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Random;
+
+public class StreamingAttachmentEntityTest {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static byte[] image(int size) {
+        byte[] bytes = new byte[size];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static StreamingAttachmentEntity entity(byte[] content) throws Exception {
+        byte[] metadata = mapper.writeValueAsBytes(Map.of("type", "screenshot", "name", "failure.png"));
+        return new StreamingAttachmentEntity(metadata, content);
+    }
+
+    @Test(description = "Streamed body is the same JSON the attachment endpoint expects")
+    public void writesBase64JsonBody() throws Exception {
+        byte[] content = image(100_001);
+        StreamingAttachmentEntity entity = entity(content);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        entity.writeTo(out);
+
+        Assert.assertEquals(out.size(), entity.getContentLength(), "Content-Length does not match the body");
+        JsonNode json = mapper.readTree(out.toByteArray());
+        Assert.assertEquals(json.get("type").asText(), "screenshot");
+        Assert.assertEquals(json.get("name").asText(), "failure.png");
+        Assert.assertEquals(Base64.getDecoder().decode(json.get("content").asText()), content);
+    }
+
+    @Test(description = "Heap allocated while streaming stays flat as the image grows")
+    public void allocationDoesNotGrowWithImageSize() throws Exception {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            throw new SkipException("Per-thread allocation counters are not available on this JVM");
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+
+        StreamingAttachmentEntity small = entity(image(1024 * 1024));
+        StreamingAttachmentEntity large = entity(image(16 * 1024 * 1024));
+
+        // Warm up so class loading and JIT are not counted
+        for (int i = 0; i < 3; i++) {
+            small.writeTo(OutputStream.nullOutputStream());
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        small.writeTo(OutputStream.nullOutputStream());
+        long smallAllocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        before = threads.getThreadAllocatedBytes(threadId);
+        large.writeTo(OutputStream.nullOutputStream());
+        long largeAllocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // A Base64 string of the 16 MB image alone would be over 21 MB
+        Assert.assertTrue(largeAllocated < 256 * 1024,
+            "Streaming a 16 MB image allocated " + largeAllocated + " bytes");
+        Assert.assertTrue(largeAllocated < smallAllocated + 64 * 1024,
+            "Allocation grew with image size: 1 MB -> " + smallAllocated + " bytes, 16 MB -> " + largeAllocated + " bytes");
+    }
+}
@@ -0,0 +1,158 @@
+package com.razatech.reporting;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+// In-process stand-in for the Pramana server that records every request it accepts
+public class StubPramanaServer {
+
+    public static class RecordedRequest {
+        public final String method;
+        public final String path;
+        public final JsonNode body;
+        public final String idempotencyKey;
+
+        RecordedRequest(String method, String path, JsonNode body, String idempotencyKey) {
+            this.method = method;
+            this.path = path;
+            this.body = body;
+            this.idempotencyKey = idempotencyKey;
+        }
+    }
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    static {
+        // Without this the JDK server waits on delayed ACKs and every call takes ~40 ms
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final boolean batchSupported;
+    private final ConcurrentLinkedQueue<RecordedRequest> requests = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<RecordedRequest> rejected = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private volatile int failureStatus = 503;
+    private final Map<String, String> testIdsByCaseId = new ConcurrentHashMap<>();
+    private final AtomicInteger idSequence = new AtomicInteger();
+    private volatile boolean recording = true;
+
+    public StubPramanaServer(boolean batchSupported) throws IOException {
+        this.batchSupported = batchSupported;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(Executors.newFixedThreadPool(8));
+    }
+
+    public StubPramanaServer start() {
+        server.start();
+        return this;
+    }
+
+    public void stop() {
+        server.stop(0);
+        ((java.util.concurrent.ExecutorService) server.getExecutor()).shutdownNow();
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    // Long runs such as benchmarks turn this off so recorded requests do not pile up in memory
+    public StubPramanaServer setRecording(boolean recording) {
+        this.recording = recording;
+        return this;
+    }
+
+    public List<RecordedRequest> getRequests() {
+        return new ArrayList<>(requests);
+    }
+
+    // The next count requests get the given status instead of being accepted
+    public StubPramanaServer failNext(int count, int status) {
+        failureStatus = status;
+        failuresLeft.set(count);
+        return this;
+    }
+
+    public List<RecordedRequest> getRejected() {
+        return new ArrayList<>(rejected);
+    }
+
+    public String getTestId(String testCaseId) {
+        return testIdsByCaseId.get(testCaseId);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        InputStream in = exchange.getRequestBody();
+        if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+            in = new GZIPInputStream(in);
+        }
+        byte[] raw = in.readAllBytes();
+        JsonNode body = raw.length > 0 ? mapper.readTree(raw) : null;
+        String idempotencyKey = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+
+        if (failuresLeft.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            rejected.add(new RecordedRequest(exchange.getRequestMethod(), path, body, idempotencyKey));
+            respond(exchange, failureStatus, "{\"status\":" + failureStatus + "}");
+            return;
+        }
+
+        if (path.endsWith("/batch")) {
+            if (!batchSupported) {
+                respond(exchange, 404, "{\"status\":404,\"error\":\"Not Found\"}");
+                return;
+            }
+            record(exchange.getRequestMethod(), path, body, idempotencyKey);
+            StringBuilder response = new StringBuilder("[");
+            for (int i = 0; body != null && i < body.size(); i++) {
+                response.append(i > 0 ? "," : "").append("{\"id\":\"").append(nextId(path, body.get(i))).append("\"}");
+            }
+            respond(exchange, 201, response.append("]").toString());
+            return;
+        }
+        record(exchange.getRequestMethod(), path, body, idempotencyKey);
+        respond(exchange, 201, "{\"id\":\"" + nextId(path, body) + "\"}");
+    }
+
+    private void record(String method, String path, JsonNode body, String idempotencyKey) {
+        if (recording) {
+            requests.add(new RecordedRequest(method, path, body, idempotencyKey));
+        }
+    }
+
+    private String nextId(String path, JsonNode body) {
+        if (path.endsWith("/tests") && body != null && body.has("testCaseId")) {
+            String id = "test_" + idSequence.incrementAndGet();
+            testIdsByCaseId.put(body.get("testCaseId").asText(), id);
+            return id;
+        }
+        return (path.contains("/steps") ? "step_" : "res_") + idSequence.incrementAndGet();
+    }
+
+    private void respond(HttpExchange exchange, int code, String response) throws IOException {
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
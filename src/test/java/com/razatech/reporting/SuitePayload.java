@@ -0,0 +1,43 @@
+package com.razatech.reporting;
+
+import java.util.List;
+
+public class SuitePayload {
+
+    private String name;
+    private String environment;
+    private List<String> tags;
+
+    public SuitePayload() {
+    }
+
+    public SuitePayload(String name, String environment, List<String> tags) {
+        this.name = name;
+        this.environment = environment;
+        this.tags = tags;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEnvironment() {
+        return environment;
+    }
+
+    public void setEnvironment(String environment) {
+        this.environment = environment;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+}
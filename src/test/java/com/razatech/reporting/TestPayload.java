@@ -0,0 +1,105 @@
+package com.razatech.reporting;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Body of a test registration or result update; unset fields are left out of the JSON
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TestPayload {
+
+    private String id;
+    private String testCaseId;
+    private String testName;
+    private String status;
+    private long duration;
+    private String startTime;
+    private String endTime;
+    private String errorMessage;
+    private String stackTrace;
+
+    public TestPayload() {
+    }
+
+    public TestPayload(String testCaseId, String testName, String status, long duration, String startTime,
+                       String errorMessage, String stackTrace) {
+        this.testCaseId = testCaseId;
+        this.testName = testName;
+        this.status = status;
+        this.duration = duration;
+        this.startTime = startTime;
+        this.errorMessage = errorMessage;
+        this.stackTrace = stackTrace;
+    }
+
+    // Only set in batch updates, where the test ID cannot go in the URL
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTestCaseId() {
+        return testCaseId;
+    }
+
+    public void setTestCaseId(String testCaseId) {
+        this.testCaseId = testCaseId;
+    }
+
+    public String getTestName() {
+        return testName;
+    }
+
+    public void setTestName(String testName) {
+        this.testName = testName;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public void setDuration(long duration) {
+        this.duration = duration;
+    }
+
+    public String getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(String startTime) {
+        this.startTime = startTime;
+    }
+
+    public String getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(String endTime) {
+        this.endTime = endTime;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public String getStackTrace() {
+        return stackTrace;
+    }
+
+    public void setStackTrace(String stackTrace) {
+        this.stackTrace = stackTrace;
+    }
+}
@@ -0,0 +1,147 @@
+package com.razatech.support;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Times WebDriver commands per command and per calling page object, for the suite and for the current test
+public class CommandTracer implements WebDriverListener {
+
+    public static final String TEST_CODE = "(test code)";
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private final Class<?> pageType;
+    private final Set<String> tracedCommands;
+    private final ConcurrentMap<String, LatencyHistogram> byCommand = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> byPage = new ConcurrentHashMap<>();
+    private final ThreadLocal<Deque<Call>> openCalls = ThreadLocal.withInitial(ArrayDeque::new);
+    private final ThreadLocal<Map<String, LatencyHistogram>> testCommands = ThreadLocal.withInitial(TreeMap::new);
+
+    private static class Call {
+        final String command;
+        final String page;
+        final long startNanos;
+
+        Call(String command, String page, long startNanos) {
+            this.command = command;
+            this.page = page;
+            this.startNanos = startNanos;
+        }
+    }
+
+    public CommandTracer(Class<?> pageType, String... commands) {
+        this.pageType = pageType;
+        this.tracedCommands = new HashSet<>(Arrays.asList(commands));
+    }
+
+    public WebDriver decorate(WebDriver driver) {
+        return new EventFiringDecorator<>(this).decorate(driver);
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (tracedCommands.contains(method.getName())) {
+            openCalls.get().push(new Call(method.getName(), callingPage(), System.nanoTime()));
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finish(method);
+    }
+
+    private void finish(Method method) {
+        if (!tracedCommands.contains(method.getName())) {
+            return;
+        }
+        Call call = openCalls.get().poll();
+        if (call == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - call.startNanos;
+        byCommand.computeIfAbsent(call.command, k -> new LatencyHistogram()).record(nanos);
+        byPage.computeIfAbsent(call.page, k -> new LatencyHistogram()).record(nanos);
+        testCommands.get().computeIfAbsent(call.command, k -> new LatencyHistogram()).record(nanos);
+    }
+
+    // The innermost page object method on the stack, so page helpers and waits count towards their page.
+    // Shared helpers called straight from a test only show up as the base page type.
+    private String callingPage() {
+        Class<?> page = STACK_WALKER.walk(frames -> {
+            Class<?> found = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                Class<?> type = frame.getDeclaringClass();
+                if (type != pageType && pageType.isAssignableFrom(type)) {
+                    return type;
+                }
+                if (type == pageType && found == null) {
+                    found = type;
+                }
+            }
+            return found;
+        });
+        return page != null ? page.getSimpleName() : TEST_CODE;
+    }
+
+    public void startTest() {
+        testCommands.get().clear();
+    }
+
+    // Commands run on this thread since startTest(), as a table
+    public String finishTest() {
+        Map<String, LatencyHistogram> commands = testCommands.get();
+        String summary = commands.isEmpty() ? null : table("command", commands);
+        testCommands.remove();
+        return summary;
+    }
+
+    public String suiteSummary() {
+        if (byCommand.isEmpty()) {
+            return null;
+        }
+        return table("command", new TreeMap<>(byCommand)) + "\n" + table("page object", new TreeMap<>(byPage));
+    }
+
+    public Map<String, LatencyHistogram> getCommandHistograms() {
+        return byCommand;
+    }
+
+    public Map<String, LatencyHistogram> getPageHistograms() {
+        return byPage;
+    }
+
+    static String table(String label, Map<String, LatencyHistogram> histograms) {
+        StringBuilder table = new StringBuilder(String.format("%-16s %7s %9s %9s %9s %9s %9s %10s%n",
+            label, "count", "mean ms", "p50 ms", "p90 ms", "p99 ms", "max ms", "total ms"));
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram h = entry.getValue();
+            table.append(String.format("%-16s %7d %9.1f %9.1f %9.1f %9.1f %9.1f %10.1f%n",
+                entry.getKey(), h.getCount(), millis(h.getMeanNanos()), millis(h.getPercentileNanos(50)),
+                millis(h.getPercentileNanos(90)), millis(h.getPercentileNanos(99)), millis(h.getMaxNanos()),
+                millis(h.getTotalNanos())));
+        }
+        return table.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,109 @@
+package com.razatech.support;
+
+import com.razatech.pages.BasePage;
+import com.razatech.pages.HomePage;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class CommandTracerTest {
+
+    @Test(description = "Percentiles stay within the bucket precision")
+    public void histogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 1000; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        Assert.assertEquals(histogram.getCount(), 1000);
+        Assert.assertEquals(histogram.getMaxNanos(), TimeUnit.MILLISECONDS.toNanos(1000));
+        assertWithin(histogram.getPercentileNanos(50), TimeUnit.MILLISECONDS.toNanos(500));
+        assertWithin(histogram.getPercentileNanos(90), TimeUnit.MILLISECONDS.toNanos(900));
+        assertWithin(histogram.getPercentileNanos(99), TimeUnit.MILLISECONDS.toNanos(990));
+        Assert.assertEquals(histogram.getPercentileNanos(100), histogram.getMaxNanos());
+    }
+
+    @Test(description = "Buckets are contiguous and cover every value")
+    public void bucketsAreContiguous() {
+        for (long micros = 0; micros < 100_000; micros++) {
+            int index = LatencyHistogram.bucketIndex(micros);
+            Assert.assertTrue(micros <= LatencyHistogram.bucketUpperBound(index), "value " + micros);
+            Assert.assertTrue(index == 0 || micros > LatencyHistogram.bucketUpperBound(index - 1), "value " + micros);
+        }
+    }
+
+    @Test(description = "Concurrent recording loses no samples")
+    public void concurrentRecording() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record(i * 1000L);
+                }
+            });
+        }
+        pool.shutdown();
+        Assert.assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        Assert.assertEquals(histogram.getCount(), 800_000);
+        Assert.assertEquals(histogram.getMaxNanos(), 99_999_000L);
+    }
+
+    @Test(description = "Commands are timed per command and attributed to the page object that issued them")
+    public void tracesCommandsByPage() {
+        CommandTracer tracer = new CommandTracer(BasePage.class, "findElements", "executeScript");
+        WebDriver driver = tracer.decorate(fakeDriver());
+        tracer.startTest();
+
+        new HomePage(driver).getNavLinkCount();
+        driver.findElements(By.tagName("a"));
+        ((JavascriptExecutor) driver).executeScript("return 1");
+        driver.getTitle();
+
+        // HomePage counts its links with a single findElements
+        Assert.assertEquals(tracer.getCommandHistograms().get("findElements").getCount(), 2);
+        Assert.assertEquals(tracer.getCommandHistograms().get("executeScript").getCount(), 1);
+        Assert.assertFalse(tracer.getCommandHistograms().containsKey("getTitle"));
+        Assert.assertEquals(tracer.getPageHistograms().get("HomePage").getCount(), 1);
+        Assert.assertEquals(tracer.getPageHistograms().get(CommandTracer.TEST_CODE).getCount(), 2);
+
+        String summary = tracer.finishTest();
+        Assert.assertTrue(summary.contains("findElements") && summary.contains("executeScript"), summary);
+        Assert.assertNull(tracer.finishTest(), "Per-test data is reset once reported");
+    }
+
+    private static void assertWithin(long actual, long expected) {
+        Assert.assertTrue(Math.abs(actual - expected) <= expected * 0.04,
+            "expected ~" + expected + " but was " + actual);
+    }
+
+    private static WebDriver fakeDriver() {
+        return (WebDriver) Proxy.newProxyInstance(CommandTracerTest.class.getClassLoader(),
+            new Class<?>[]{WebDriver.class, JavascriptExecutor.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "findElements":
+                        return new ArrayList<>();
+                    case "executeScript":
+                        return 1L;
+                    case "getTitle":
+                        return "fake";
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        return null;
+                }
+            });
+    }
+}
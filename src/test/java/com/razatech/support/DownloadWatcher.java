@@ -0,0 +1,105 @@
+package com.razatech.support;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Watches a download directory and returns as soon as a new, fully written file shows up.
+// Create it before triggering the download so files that were already there are ignored.
+public class DownloadWatcher implements AutoCloseable {
+
+    private static final long RESCAN_INTERVAL_MS = 200;
+
+    private final Path directory;
+    private final WatchService watchService;
+    private final Set<Path> existingFiles = new HashSet<>();
+
+    public DownloadWatcher(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        this.watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                existingFiles.add(file.getFileName());
+            }
+        }
+    }
+
+    // Returns the completed file, or null if none with the given suffix arrived in time
+    public Path awaitFile(String suffix, Duration timeout) throws IOException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+
+        while (true) {
+            long remainingMs = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMs <= 0) {
+                return null;
+            }
+
+            WatchKey key;
+            try {
+                // Wake up regularly and rescan, in case the platform watcher is slow or overflowed
+                key = watchService.poll(Math.min(remainingMs, RESCAN_INTERVAL_MS), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+
+            if (key != null) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        continue;
+                    }
+                    Path file = directory.resolve((Path) event.context());
+                    if (isComplete(file, suffix)) {
+                        return file;
+                    }
+                }
+                key.reset();
+            }
+
+            Path file = scan(suffix);
+            if (file != null) {
+                return file;
+            }
+        }
+    }
+
+    private Path scan(String suffix) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (isComplete(file, suffix)) {
+                    return file;
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean isComplete(Path file, String suffix) throws IOException {
+        String name = file.getFileName().toString();
+        if (existingFiles.contains(file.getFileName()) || !name.endsWith(suffix)) {
+            return false;
+        }
+        // Chrome writes to <name>.crdownload and renames it when the download finishes
+        return Files.isRegularFile(file)
+            && Files.size(file) > 0
+            && !Files.exists(file.resolveSibling(name + ".crdownload"));
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
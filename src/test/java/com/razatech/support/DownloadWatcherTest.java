@@ -0,0 +1,68 @@
+package com.razatech.support;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+// The download directory is per method, so the methods must not run in parallel
+@Test(singleThreaded = true)
+public class DownloadWatcherTest {
+
+    private Path downloadDir;
+
+    @BeforeMethod
+    public void createDir() throws IOException {
+        downloadDir = Files.createTempDirectory("download-watcher-test-");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDir() throws IOException {
+        try (Stream<Path> files = Files.walk(downloadDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test(description = "Returns the new file once the partial download is renamed")
+    public void returnsCompletedDownloadOnly() throws Exception {
+        Files.writeString(downloadDir.resolve("old-report.csv"), "stale");
+
+        try (DownloadWatcher watcher = new DownloadWatcher(downloadDir)) {
+            Thread writer = new Thread(() -> {
+                try {
+                    Path partial = downloadDir.resolve("report.csv.crdownload");
+                    Files.writeString(partial, "Container ID,Status\n");
+                    Thread.sleep(300);
+                    Files.move(partial, downloadDir.resolve("report.csv"), StandardCopyOption.ATOMIC_MOVE);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            writer.start();
+
+            Path csv = watcher.awaitFile(".csv", Duration.ofSeconds(5));
+            writer.join();
+
+            Assert.assertNotNull(csv, "Download was not detected");
+            Assert.assertEquals(csv.getFileName().toString(), "report.csv");
+            Assert.assertEquals(Files.readAllLines(csv).get(0), "Container ID,Status");
+        }
+    }
+
+    @Test(description = "Times out when only pre-existing files are present")
+    public void ignoresFilesThatWereAlreadyThere() throws Exception {
+        Files.writeString(downloadDir.resolve("old-report.csv"), "stale");
+
+        try (DownloadWatcher watcher = new DownloadWatcher(downloadDir)) {
+            Assert.assertNull(watcher.awaitFile(".csv", Duration.ofMillis(500)));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.razatech.support;
+
+import com.razatech.reporting.PramanaConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Time spent resolving each page-object locator, with element cache hits and misses (page.locator.profile=true)
+public class LocatorProfiler {
+
+    private static final boolean ENABLED = PramanaConfig.getBoolean("page.locator.profile", false);
+    private static final int TOP = PramanaConfig.getInt("page.locator.profile.top", 15);
+    private static final Map<String, Entry> locators = new ConcurrentHashMap<>();
+
+    private static class Entry {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder hits = new LongAdder();
+    }
+
+    private LocatorProfiler() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static void record(String page, Object locator, long nanos, boolean cacheHit) {
+        if (!ENABLED) {
+            return;
+        }
+        Entry entry = locators.computeIfAbsent(page + " " + locator, key -> new Entry());
+        entry.latency.record(nanos);
+        if (cacheHit) {
+            entry.hits.increment();
+        }
+    }
+
+    // Slowest locators by total resolution time, or null when profiling is off or nothing was resolved
+    public static String summary() {
+        if (locators.isEmpty()) {
+            return null;
+        }
+        List<Map.Entry<String, Entry>> slowest = new ArrayList<>(locators.entrySet());
+        slowest.sort((a, b) -> Long.compare(b.getValue().latency.getTotalNanos(), a.getValue().latency.getTotalNanos()));
+
+        StringBuilder table = new StringBuilder(String.format("%-60s %7s %6s %9s %9s %9s %10s%n",
+            "locator", "lookups", "hit %", "mean ms", "p90 ms", "max ms", "total ms"));
+        for (Map.Entry<String, Entry> entry : slowest.subList(0, Math.min(TOP, slowest.size()))) {
+            LatencyHistogram h = entry.getValue().latency;
+            table.append(String.format("%-60s %7d %6.0f %9.1f %9.1f %9.1f %10.1f%n",
+                entry.getKey(), h.getCount(), 100.0 * entry.getValue().hits.sum() / h.getCount(),
+                millis(h.getMeanNanos()), millis(h.getPercentileNanos(90)), millis(h.getMaxNanos()),
+                millis(h.getTotalNanos())));
+        }
+        return table.toString();
+    }
+
+    public static void reset() {
+        locators.clear();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
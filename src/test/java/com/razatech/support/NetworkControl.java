@@ -0,0 +1,292 @@
+package com.razatech.support;
+
+import com.razatech.reporting.PramanaConfig;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Blocks unneeded requests and serves static assets from a disk cache through Chrome DevTools
+public class NetworkControl implements Filter, AutoCloseable {
+
+    private static final boolean ENABLED = PramanaConfig.getBoolean("network.control.enabled", false);
+    private static final List<Pattern> BLOCKED_PATTERNS = globs(PramanaConfig.get("network.block.patterns", ""));
+    private static final Set<String> BLOCKED_TYPES = set(PramanaConfig.get("network.block.types", ""));
+    private static final boolean CACHE_ENABLED = PramanaConfig.getBoolean("network.cache.enabled", true);
+    private static final Set<String> CACHED_TYPES = set(PramanaConfig.get("network.cache.types", "script,style,font,image"));
+    private static final Path CACHE_DIR = Paths.get(PramanaConfig.get("network.cache.dir", ".pramana/asset-cache"));
+    private static final long CACHE_TTL_MS = TimeUnit.HOURS.toMillis(PramanaConfig.getLong("network.cache.ttl.hours", 24));
+    private static final int CACHE_MAX_BYTES = 5 * 1024 * 1024;
+    private static final int SLOWEST_REQUESTS = 20;
+    // Describe the connection or the body as sent, not the resource, so they are not replayed from the cache
+    private static final Set<String> UNSTORED_HEADERS =
+        set("content-length,transfer-encoding,connection,keep-alive,set-cookie");
+
+    // Navigation timing plus one row per resource: url, initiator, duration ms, bytes over the wire
+    private static final String TIMING_SCRIPT =
+        "var nav = performance.getEntriesByType('navigation')[0];"
+            + "var resources = performance.getEntriesByType('resource').map(function (e) {"
+            + "  return [e.name, e.initiatorType, Math.round(e.duration), e.transferSize || 0];"
+            + "});"
+            + "return [location.href,"
+            + "  nav ? Math.round(nav.domContentLoadedEventEnd - nav.startTime) : -1,"
+            + "  nav ? Math.round(nav.loadEventEnd - nav.startTime) : -1,"
+            + "  resources];";
+
+    private final Path cacheDir;
+    private NetworkInterceptor interceptor;
+    private final LongAdder blocked = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder fetched = new LongAdder();
+
+    NetworkControl(Path cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    // Null when disabled or when the browser has no DevTools connection (e.g. Firefox)
+    public static NetworkControl attach(WebDriver driver) {
+        if (!ENABLED) {
+            return null;
+        }
+        if (!(driver instanceof HasDevTools)) {
+            System.err.println("⚠️ Network control needs a Chromium browser; requests are not intercepted");
+            return null;
+        }
+        try {
+            NetworkControl control = new NetworkControl(CACHE_DIR);
+            control.interceptor = new NetworkInterceptor(driver, control);
+            return control;
+        } catch (WebDriverException e) {
+            System.err.println("⚠️ Could not start network interception: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public HttpHandler apply(HttpHandler next) {
+        return request -> handle(request, next);
+    }
+
+    private HttpResponse handle(HttpRequest request, HttpHandler next) {
+        String url = request.getUri();
+        String type = resourceType(request);
+        if (!"document".equals(type) && (BLOCKED_TYPES.contains(type)
+                || BLOCKED_PATTERNS.stream().anyMatch(pattern -> pattern.matcher(url).matches()))) {
+            blocked.increment();
+            return new HttpResponse().setStatus(404);
+        }
+
+        boolean cacheable = CACHE_ENABLED && request.getMethod() == HttpMethod.GET && CACHED_TYPES.contains(type);
+        Path body = cacheable ? cacheDir.resolve(hash(url)) : null;
+        if (cacheable) {
+            HttpResponse cached = readCache(body);
+            if (cached != null) {
+                cacheHits.increment();
+                return cached;
+            }
+        }
+
+        HttpResponse response = next.execute(request);
+        fetched.increment();
+        if (cacheable && response.getStatus() == 200 && storable(response)) {
+            writeCache(body, response);
+        }
+        return response;
+    }
+
+    // The server's own rules win: anything it marks as not for shared reuse, or that sets a cookie, is fetched again
+    static boolean storable(HttpResponse response) {
+        String cacheControl = String.join(",", response.getHeaders("Cache-Control")).toLowerCase(Locale.ROOT);
+        if (cacheControl.matches(".*\\b(no-store|no-cache|private)\\b.*")) {
+            return false;
+        }
+        String vary = response.getHeader("Vary");
+        return (vary == null || !vary.contains("*")) && response.getHeader("Set-Cookie") == null;
+    }
+
+    // Sec-Fetch-Dest says what the browser is loading; the file extension is the fallback
+    static String resourceType(HttpRequest request) {
+        String destination = request.getHeader("Sec-Fetch-Dest");
+        if (destination != null && !destination.isEmpty() && !"empty".equals(destination)) {
+            switch (destination) {
+                case "audio":
+                case "video":
+                case "track":
+                    return "media";
+                case "iframe":
+                case "frame":
+                    return "document";
+                default:
+                    return destination;
+            }
+        }
+        String path = request.getUri().replaceAll("[?#].*$", "").toLowerCase(Locale.ROOT);
+        if (path.matches(".*\\.(png|jpe?g|gif|webp|avif|svg|ico|bmp)$")) return "image";
+        if (path.matches(".*\\.(woff2?|ttf|otf|eot)$")) return "font";
+        if (path.matches(".*\\.(mp4|webm|ogg|mp3|wav)$")) return "media";
+        if (path.endsWith(".css")) return "style";
+        if (path.matches(".*\\.m?js$")) return "script";
+        return "other";
+    }
+
+    // Replays the stored response headers (CORS, Vary, Cache-Control, ...) with the body
+    private HttpResponse readCache(Path body) {
+        Path meta = Paths.get(body + ".headers");
+        try {
+            if (!Files.exists(body) || !Files.exists(meta)
+                    || System.currentTimeMillis() - Files.getLastModifiedTime(body).toMillis() > CACHE_TTL_MS) {
+                return null;
+            }
+            HttpResponse response = new HttpResponse().setStatus(200);
+            for (String line : Files.readAllLines(meta, StandardCharsets.UTF_8)) {
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    response.addHeader(line.substring(0, colon), line.substring(colon + 1).trim());
+                }
+            }
+            response.setContent(Contents.bytes(Files.readAllBytes(body)));
+            return response;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Written to temp files and moved into place so parallel browsers never read a half-written asset
+    private void writeCache(Path body, HttpResponse response) {
+        byte[] content = Contents.bytes(response.getContent());
+        response.setContent(Contents.bytes(content));
+        if (content.length > CACHE_MAX_BYTES || response.getHeader("Content-Type") == null) {
+            return;
+        }
+        // DevTools hands over the decoded body, so Content-Encoding is only kept while the bytes are still gzip
+        boolean gzipped = content.length > 1 && (content[0] & 0xff) == 0x1f && (content[1] & 0xff) == 0x8b;
+        StringBuilder headers = new StringBuilder();
+        response.forEachHeader((name, value) -> {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (UNSTORED_HEADERS.contains(lower)
+                    || ("content-encoding".equals(lower) && !(gzipped && "gzip".equalsIgnoreCase(value.trim())))) {
+                return;
+            }
+            headers.append(name).append(": ").append(value).append('\n');
+        });
+        try {
+            Files.createDirectories(cacheDir);
+            Path headersTemp = Files.createTempFile(cacheDir, "asset", ".tmp");
+            Files.write(headersTemp, headers.toString().getBytes(StandardCharsets.UTF_8));
+            Files.move(headersTemp, Paths.get(body + ".headers"), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+            Path bodyTemp = Files.createTempFile(cacheDir, "asset", ".tmp");
+            Files.write(bodyTemp, content);
+            Files.move(bodyTemp, body, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not cache asset " + body.getFileName() + ": " + e.getMessage());
+        }
+    }
+
+    // Counts since the last call, e.g. "12 blocked, 30 from cache, 4 fetched"
+    public String takeCounts() {
+        return blocked.sumThenReset() + " blocked, " + cacheHits.sumThenReset() + " from cache, "
+            + fetched.sumThenReset() + " fetched";
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (interceptor != null) {
+                interceptor.close();
+            }
+        } catch (WebDriverException e) {
+            // The browser is already gone
+        }
+    }
+
+    // Load times of the current page and its slowest requests from the browser's Resource Timing API
+    public static String timingReport(WebDriver driver) {
+        if (!(driver instanceof JavascriptExecutor)) {
+            return null;
+        }
+        List<?> timing;
+        try {
+            timing = (List<?>) ((JavascriptExecutor) driver).executeScript(TIMING_SCRIPT);
+        } catch (WebDriverException e) {
+            System.err.println("⚠️ Could not read request timings: " + e.getMessage());
+            return null;
+        }
+
+        List<List<?>> resources = new ArrayList<>();
+        long totalBytes = 0;
+        for (Object resource : (List<?>) timing.get(3)) {
+            List<?> row = (List<?>) resource;
+            resources.add(row);
+            totalBytes += ((Number) row.get(3)).longValue();
+        }
+        resources.sort((a, b) -> Long.compare(((Number) b.get(2)).longValue(), ((Number) a.get(2)).longValue()));
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Page %s: DOMContentLoaded %s ms, load %s ms, %d requests, %.1f KB transferred%n%n",
+            timing.get(0), timing.get(1), timing.get(2), resources.size(), totalBytes / 1024.0));
+        report.append(String.format("%8s %9s %-12s %s%n", "ms", "KB", "type", "url"));
+        for (List<?> row : resources.subList(0, Math.min(SLOWEST_REQUESTS, resources.size()))) {
+            report.append(String.format("%8d %9.1f %-12s %s%n", ((Number) row.get(2)).longValue(),
+                ((Number) row.get(3)).longValue() / 1024.0, row.get(1), row.get(0)));
+        }
+        return report.toString();
+    }
+
+    private static String hash(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<Pattern> globs(String patterns) {
+        return set(patterns).stream()
+            .map(glob -> Pattern.compile(Arrays.stream(glob.split("\\*", -1))
+                .map(Pattern::quote)
+                .collect(Collectors.joining(".*"))))
+            .collect(Collectors.toList());
+    }
+
+    private static Set<String> set(String values) {
+        Set<String> set = new HashSet<>();
+        for (String value : values.split("\\s*,\\s*")) {
+            if (!value.isEmpty()) {
+                set.add(value);
+            }
+        }
+        return set;
+    }
+}
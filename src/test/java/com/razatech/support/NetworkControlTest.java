@@ -0,0 +1,90 @@
+package com.razatech.support;
+
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class NetworkControlTest {
+
+    @Test(description = "Resource types come from Sec-Fetch-Dest, falling back to the file extension")
+    public void detectsResourceTypes() {
+        Assert.assertEquals(NetworkControl.resourceType(request("https://example.com/app.js", "script")), "script");
+        Assert.assertEquals(NetworkControl.resourceType(request("https://example.com/clip", "video")), "media");
+        Assert.assertEquals(NetworkControl.resourceType(request("https://example.com/logo.PNG?v=2", null)), "image");
+        Assert.assertEquals(NetworkControl.resourceType(request("https://example.com/f.woff2", "empty")), "font");
+        Assert.assertEquals(NetworkControl.resourceType(request("https://example.com/api/rows", null)), "other");
+    }
+
+    @Test(description = "Blocked types never reach the network and static assets are fetched only once")
+    public void blocksAndCaches() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        HttpHandler network = req -> {
+            fetches.incrementAndGet();
+            HttpResponse response = new HttpResponse().setStatus(200);
+            response.setHeader("Content-Type", "text/css");
+            response.setContent(Contents.utf8String("body { color: red }"));
+            return response;
+        };
+        NetworkControl control = new NetworkControl(Files.createTempDirectory("asset-cache"));
+        HttpHandler handler = control.apply(network);
+
+        // image and font are blocked in config.properties
+        Assert.assertEquals(handler.execute(request("https://example.com/hero.jpg", "image")).getStatus(), 404);
+        Assert.assertEquals(handler.execute(request("https://fonts.gstatic.com/s/roboto.woff2", "font")).getStatus(), 404);
+
+        HttpResponse first = handler.execute(request("https://example.com/site.css", "style"));
+        HttpResponse second = handler.execute(request("https://example.com/site.css", "style"));
+        Assert.assertEquals(Contents.utf8String(first.getContent()), "body { color: red }");
+        Assert.assertEquals(Contents.utf8String(second.getContent()), "body { color: red }");
+        Assert.assertEquals(second.getHeader("Content-Type"), "text/css");
+        Assert.assertEquals(fetches.get(), 1);
+        Assert.assertEquals(control.takeCounts(), "2 blocked, 1 from cache, 1 fetched");
+    }
+
+    @Test(description = "Cached assets keep the server's headers; uncacheable responses are not stored")
+    public void replaysHeadersAndHonoursCacheControl() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        HttpHandler network = req -> {
+            fetches.incrementAndGet();
+            HttpResponse response = new HttpResponse().setStatus(200);
+            response.setHeader("Content-Type", "application/javascript");
+            response.setHeader("Access-Control-Allow-Origin", "https://app.example.com");
+            response.setHeader("Vary", "Origin");
+            // The body below is already decoded, as DevTools hands it over
+            response.setHeader("Content-Encoding", "gzip");
+            response.setHeader("Cache-Control",
+                req.getUri().contains("private") ? "private, max-age=60" : "max-age=600");
+            response.setContent(Contents.utf8String("console.log(1)"));
+            return response;
+        };
+        HttpHandler handler = new NetworkControl(Files.createTempDirectory("asset-cache")).apply(network);
+
+        handler.execute(request("https://cdn.example.com/lib.js", "script"));
+        HttpResponse cached = handler.execute(request("https://cdn.example.com/lib.js", "script"));
+        Assert.assertEquals(fetches.get(), 1);
+        Assert.assertEquals(cached.getHeader("Access-Control-Allow-Origin"), "https://app.example.com");
+        Assert.assertEquals(cached.getHeader("Vary"), "Origin");
+        Assert.assertEquals(cached.getHeader("Cache-Control"), "max-age=600");
+        Assert.assertNull(cached.getHeader("Content-Encoding"), "A decoded body must not claim to be gzip");
+        Assert.assertEquals(Contents.utf8String(cached.getContent()), "console.log(1)");
+
+        handler.execute(request("https://cdn.example.com/private.js", "script"));
+        handler.execute(request("https://cdn.example.com/private.js", "script"));
+        Assert.assertEquals(fetches.get(), 3, "Cache-Control: private must not be served from the cache");
+    }
+
+    private static HttpRequest request(String url, String destination) {
+        HttpRequest request = new HttpRequest(HttpMethod.GET, url);
+        if (destination != null) {
+            request.setHeader("Sec-Fetch-Dest", destination);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,176 @@
+package com.razatech.support;
+
+import com.razatech.reporting.PramanaConfig;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+// Explicit waits with adaptive polling: checks quickly at first, then backs off while the condition stays false
+public class Waits {
+
+    private static final long DEFAULT_TIMEOUT_MS = PramanaConfig.getLong("wait.timeout.ms", 10000);
+    private static final long MIN_POLL_MS = PramanaConfig.getLong("wait.poll.min.ms", 25);
+    private static final long MAX_POLL_MS = PramanaConfig.getLong("wait.poll.max.ms", 250);
+
+    private final WebDriver driver;
+    private final Duration timeout;
+
+    public Waits(WebDriver driver) {
+        this(driver, Duration.ofMillis(DEFAULT_TIMEOUT_MS));
+    }
+
+    public Waits(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.timeout = timeout;
+    }
+
+    public <T> T until(ExpectedCondition<T> condition) {
+        return until(condition, timeout);
+    }
+
+    public <T> T until(ExpectedCondition<T> condition, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long poll = MIN_POLL_MS;
+        RuntimeException lastError = null;
+
+        while (true) {
+            try {
+                T value = condition.apply(driver);
+                if (value != null && !Boolean.FALSE.equals(value)) {
+                    return value;
+                }
+            } catch (NoSuchElementException | StaleElementReferenceException e) {
+                lastError = e;
+            }
+
+            long remainingMs = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMs <= 0) {
+                throw new TimeoutException("Timed out after " + timeout.toMillis() + " ms waiting for " + condition, lastError);
+            }
+            sleep(Math.min(poll, remainingMs));
+            poll = Math.min(MAX_POLL_MS, poll * 2);
+        }
+    }
+
+    // For conditions outside the browser, e.g. a file appearing on disk
+    public boolean until(BooleanSupplier condition, Duration timeout) {
+        try {
+            return until(new ExpectedCondition<Boolean>() {
+                @Override
+                public Boolean apply(WebDriver ignored) {
+                    return condition.getAsBoolean();
+                }
+
+                @Override
+                public String toString() {
+                    return "condition to be true";
+                }
+            }, timeout);
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    public void untilAll(List<ExpectedCondition<?>> conditions) {
+        for (ExpectedCondition<?> condition : conditions) {
+            until(condition);
+        }
+    }
+
+    public WebElement present(By locator) {
+        return until(elementPresent(locator));
+    }
+
+    public WebElement visible(By locator) {
+        return until(new ExpectedCondition<WebElement>() {
+            @Override
+            public WebElement apply(WebDriver driver) {
+                WebElement element = driver.findElement(locator);
+                return element.isDisplayed() ? element : null;
+            }
+
+            @Override
+            public String toString() {
+                return "visibility of " + locator;
+            }
+        });
+    }
+
+    // Absence checks return at once instead of sitting out an implicit wait
+    public boolean isPresentNow(By locator) {
+        return !findNow(locator).isEmpty();
+    }
+
+    public boolean isDisplayedNow(By locator) {
+        try {
+            for (WebElement element : findNow(locator)) {
+                if (element.isDisplayed()) {
+                    return true;
+                }
+            }
+        } catch (StaleElementReferenceException e) {
+            return false;
+        }
+        return false;
+    }
+
+    private List<WebElement> findNow(By locator) {
+        Duration implicitWait = driver.manage().timeouts().getImplicitWaitTimeout();
+        if (implicitWait.isZero()) {
+            return driver.findElements(locator);
+        }
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        try {
+            return driver.findElements(locator);
+        } finally {
+            driver.manage().timeouts().implicitlyWait(implicitWait);
+        }
+    }
+
+    public static ExpectedCondition<Boolean> documentReady() {
+        return new ExpectedCondition<Boolean>() {
+            @Override
+            public Boolean apply(WebDriver driver) {
+                return "complete".equals(((JavascriptExecutor) driver).executeScript("return document.readyState"));
+            }
+
+            @Override
+            public String toString() {
+                return "document.readyState to be complete";
+            }
+        };
+    }
+
+    public static ExpectedCondition<WebElement> elementPresent(By locator) {
+        return new ExpectedCondition<WebElement>() {
+            @Override
+            public WebElement apply(WebDriver driver) {
+                List<WebElement> elements = driver.findElements(locator);
+                return elements.isEmpty() ? null : elements.get(0);
+            }
+
+            @Override
+            public String toString() {
+                return "presence of " + locator;
+            }
+        };
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting", e);
+        }
+    }
+}
@@ -12,87 +12,45 @@ import org.testng.annotations.Test;
 @Listeners(PramanaListener.class)
 public class HomePageTest extends BaseTest {
     @BeforeMethod
-    public void navigate() throws InterruptedException {
-        driver.get("https://panjatan.netlify.app/");
-        Thread.sleep(2000);
+    public void navigate() {
+        getDriver().get("https://panjatan.netlify.app/");
+        new HomePage(getDriver()).waitUntilReady();
     }
 
     @Test(description = "Navigation Links Verification")
-    public void verifyNavigationLinks() throws InterruptedException {
-        long startTime = System.currentTimeMillis();
-        HomePage home = new HomePage(driver);
-        PramanaReporter.logStep("Initialize HomePage object", "passed",
-            System.currentTimeMillis() - startTime);
-
-        startTime = System.currentTimeMillis();
-        int count = home.getNavLinkCount();
-        PramanaReporter.logStep("Get navigation link count", "passed",
-            System.currentTimeMillis() - startTime);
-
-        startTime = System.currentTimeMillis();
-        Assert.assertTrue(count >= 3, "Expected at least 3 navigation links but found: " + count);
-        PramanaReporter.logStep("Verify at least 3 navigation links present", "passed",
-            System.currentTimeMillis() - startTime);
+    public void verifyNavigationLinks() {
+        HomePage home = PramanaReporter.step("Initialize HomePage object", () -> new HomePage(getDriver()));
+        int count = PramanaReporter.step("Get navigation link count", home::getNavLinkCount);
+        PramanaReporter.step("Verify at least 3 navigation links present",
+            () -> Assert.assertTrue(count >= 3, "Expected at least 3 navigation links but found: " + count));
     }
 
     @Test(description = "Hero Section Verification")
     public void verifyHeroSectionAndCTA() {
-        long startTime = System.currentTimeMillis();
-        HomePage home = new HomePage(driver);
-        PramanaReporter.logStep("Initialize HomePage object", "passed",
-            System.currentTimeMillis() - startTime);
-
-        startTime = System.currentTimeMillis();
-        Assert.assertTrue(home.isHeroVisible(), "Hero heading not visible!");
-        PramanaReporter.logStep("Verify hero section is visible", "passed",
-            System.currentTimeMillis() - startTime);
-
-        startTime = System.currentTimeMillis();
-        home.clickHeroButton();
-        PramanaReporter.logStep("Click hero button (CTA)", "passed",
-            System.currentTimeMillis() - startTime);
-
-        startTime = System.currentTimeMillis();
-        Assert.assertFalse(driver.getCurrentUrl().contains("learn") || driver.getCurrentUrl().contains("#"),
-                "CTA button did not perform expected navigation.");
-        PramanaReporter.logStep("Verify navigation after CTA click", "passed",
-            System.currentTimeMillis() - startTime);
+        HomePage home = PramanaReporter.step("Initialize HomePage object", () -> new HomePage(getDriver()));
+        PramanaReporter.step("Verify hero section is visible",
+            () -> Assert.assertTrue(home.isHeroVisible(), "Hero heading not visible!"));
+        PramanaReporter.step("Click hero button (CTA)", home::clickHeroButton);
+        PramanaReporter.step("Verify navigation after CTA click",
+            () -> Assert.assertFalse(getDriver().getCurrentUrl().contains("learn") || getDriver().getCurrentUrl().contains("#"),
+                "CTA button did not perform expected navigation."));
     }
 
     @Test(description = "Verify Features are available")
     public void verifyFeaturesSection() {
-        long startTime = System.currentTimeMillis();
-        HomePage home = new HomePage(driver);
-        PramanaReporter.logStep("Initialize HomePage object", "passed",
-            System.currentTimeMillis() - startTime);
-
-        startTime = System.currentTimeMillis();
-        int featureCount = home.getFeatureCount();
-        PramanaReporter.logStep("Get features count", "passed",
-            System.currentTimeMillis() - startTime);
-
-        startTime = System.currentTimeMillis();
-        Assert.assertTrue(featureCount >= 3, "Expected at least 3 features but found: " + featureCount);
-        PramanaReporter.logStep("Verify at least 3 features present", "passed",
-            System.currentTimeMillis() - startTime);
+        HomePage home = PramanaReporter.step("Initialize HomePage object", () -> new HomePage(getDriver()));
+        int featureCount = PramanaReporter.step("Get features count", home::getFeatureCount);
+        PramanaReporter.step("Verify at least 3 features present",
+            () -> Assert.assertTrue(featureCount >= 3, "Expected at least 3 features but found: " + featureCount));
     }
 
     @Test(description = "Footer content links verification")
     public void verifyFooterContentAndLinks() {
-        long startTime = System.currentTimeMillis();
-        HomePage home = new HomePage(driver);
-        PramanaReporter.logStep("Initialize HomePage object", "passed",
-            System.currentTimeMillis() - startTime);
-
-        startTime = System.currentTimeMillis();
-        Assert.assertTrue(home.isFooterVisible(), "Footer not visible!");
-        PramanaReporter.logStep("Verify footer is visible", "passed",
-            System.currentTimeMillis() - startTime);
-
-        startTime = System.currentTimeMillis();
-        Assert.assertTrue(home.getFooterLinkCount() > 0, "No footer links found!");
-        PramanaReporter.logStep("Verify footer links are present", "passed",
-            System.currentTimeMillis() - startTime);
+        HomePage home = PramanaReporter.step("Initialize HomePage object", () -> new HomePage(getDriver()));
+        PramanaReporter.step("Verify footer is visible",
+            () -> Assert.assertTrue(home.isFooterVisible(), "Footer not visible!"));
+        PramanaReporter.step("Verify footer links are present",
+            () -> Assert.assertTrue(home.getFooterLinkCount() > 0, "No footer links found!"));
     }
 
 }